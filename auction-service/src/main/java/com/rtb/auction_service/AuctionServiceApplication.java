@@ -0,0 +1,15 @@
+package com.rtb.auction_service;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@SpringBootApplication
+@EnableScheduling
+public class AuctionServiceApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(AuctionServiceApplication.class, args);
+	}
+
+}
@@ -0,0 +1,223 @@
+package com.rtb.auction_service.auction;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import com.rtb.wire.dto.BidResponse;
+import com.rtb.wire.dto.WinNotice;
+
+/**
+ * Every open auction, keyed by impression, in flat primitive arrays.
+ *
+ * The first bid for an impression opens its auction and starts a window of windowMillis;
+ * later bids only update the running best and runner-up price. When the window closes the
+ * auction is priced by its {@link AuctionType} and a {@link WinNotice} goes to the caller.
+ * The closed auction then lingers for lateGraceMillis so stragglers are recognised as late
+ * instead of opening a second auction for the same impression.
+ *
+ * Layout: an auction is a slot number into parallel arrays (price, runner-up, bid count,
+ * state and the winning BidResponse). Impressions map to slots through a
+ * {@link LongIntHashMap} keyed by a 64-bit hash of the impression id, and windows expire
+ * through a {@link TimerWheel} over the same slot numbers. All of it is allocated once
+ * for maxAuctions slots (open plus lingering), about 75 bytes per slot, so a million
+ * open auctions cost no more heap than the retained winning bids themselves and create
+ * no garbage as they come and go. A hash collision is detected by comparing impression
+ * ids and rejected rather than merged.
+ *
+ * Not thread-safe: AuctionService serialises access.
+ */
+public final class AuctionBook {
+
+    public enum Offer {
+        ACCEPTED,
+        BELOW_RESERVE,
+        LATE,      // the auction for this impression has already closed
+        FULL,      // maxAuctions slots are in use
+        COLLISION  // another open impression has the same 64-bit hash
+    }
+
+    private static final byte FREE = 0;
+    private static final byte OPEN = 1;
+    private static final byte CLOSED = 2;
+
+    private final AuctionType type;
+    private final long windowMillis;
+    private final long lateGraceMillis;
+    private final long reservePriceMicros;
+    private final long priceIncrementMicros;
+
+    private final LongIntHashMap slotsByImpression;
+    private final TimerWheel timers;
+
+    // Per slot.
+    private final long[] keys;
+    private final byte[] states;
+    private final long[] bestPrices;
+    private final long[] secondPrices;
+    private final int[] bidCounts;
+    private final BidResponse[] bestBids;
+
+    // Free slots, as a stack.
+    private final int[] free;
+    private int freeCount;
+    private int openCount;
+
+    // Expiry callback state, bound once so closing never allocates a lambda.
+    private final IntConsumer onExpired = this::expire;
+    private Consumer<WinNotice> notices;
+    private long now;
+    private int closedThisRound;
+
+    public AuctionBook(int maxAuctions, AuctionType type, long windowMillis, long lateGraceMillis, long tickMillis,
+                       long reservePriceMicros, long priceIncrementMicros, long nowMillis) {
+        if (maxAuctions < 1 || maxAuctions > (1 << 28)) {
+            throw new IllegalArgumentException("rtb.auction.max-auctions must be between 1 and 2^28");
+        }
+        if (windowMillis < 1 || lateGraceMillis < 0) {
+            throw new IllegalArgumentException("rtb.auction.window-ms must be positive and late-grace-ms not negative");
+        }
+        this.type = type;
+        this.windowMillis = windowMillis;
+        this.lateGraceMillis = lateGraceMillis;
+        this.reservePriceMicros = reservePriceMicros;
+        this.priceIncrementMicros = priceIncrementMicros;
+
+        this.slotsByImpression = new LongIntHashMap(maxAuctions);
+        this.timers = new TimerWheel(maxAuctions, tickMillis, Math.max(windowMillis, lateGraceMillis), nowMillis);
+        this.keys = new long[maxAuctions];
+        this.states = new byte[maxAuctions];
+        this.bestPrices = new long[maxAuctions];
+        this.secondPrices = new long[maxAuctions];
+        this.bidCounts = new int[maxAuctions];
+        this.bestBids = new BidResponse[maxAuctions];
+
+        this.free = new int[maxAuctions];
+        for (int slot = 0; slot < maxAuctions; slot++) {
+            free[maxAuctions - 1 - slot] = slot; // hand out slot 0 first
+        }
+        this.freeCount = maxAuctions;
+    }
+
+    public Offer offer(BidResponse bid, long nowMillis) {
+        long price = bid.bidPriceMicros();
+        if (price < reservePriceMicros || price <= 0) {
+            return Offer.BELOW_RESERVE;
+        }
+        long key = hash(bid.impressionId());
+        int slot = slotsByImpression.get(key);
+
+        if (slot == LongIntHashMap.MISSING) {
+            if (freeCount == 0) {
+                return Offer.FULL;
+            }
+            slot = free[--freeCount];
+            keys[slot] = key;
+            states[slot] = OPEN;
+            bestPrices[slot] = price;
+            secondPrices[slot] = 0L;
+            bidCounts[slot] = 1;
+            bestBids[slot] = bid;
+            slotsByImpression.put(key, slot);
+            timers.schedule(slot, nowMillis + windowMillis);
+            openCount++;
+            return Offer.ACCEPTED;
+        }
+
+        if (!bestBids[slot].impressionId().equals(bid.impressionId())) {
+            return Offer.COLLISION;
+        }
+        if (states[slot] != OPEN) {
+            return Offer.LATE;
+        }
+        bidCounts[slot]++;
+        // Strictly greater: on equal prices the earlier bid keeps the win and pays its own price.
+        if (price > bestPrices[slot]) {
+            secondPrices[slot] = bestPrices[slot];
+            bestPrices[slot] = price;
+            bestBids[slot] = bid;
+        } else if (price > secondPrices[slot]) {
+            secondPrices[slot] = price;
+        }
+        return Offer.ACCEPTED;
+    }
+
+    /**
+     * Closes every auction whose window has ended by nowMillis, handing one notice per
+     * auction to notices, and frees auctions whose late grace is over. Returns the number
+     * of auctions closed.
+     */
+    public int closeExpired(long nowMillis, Consumer<WinNotice> notices) {
+        this.notices = notices;
+        this.now = nowMillis;
+        this.closedThisRound = 0;
+        try {
+            timers.advance(nowMillis, onExpired);
+        } finally {
+            this.notices = null;
+        }
+        return closedThisRound;
+    }
+
+    public int openAuctions() {
+        return openCount;
+    }
+
+    /**
+     * Slots in use: open auctions plus closed ones still in their late grace.
+     */
+    public int usedSlots() {
+        return bestBids.length - freeCount;
+    }
+
+    private void expire(int slot) {
+        if (states[slot] == OPEN) {
+            close(slot);
+            if (lateGraceMillis > 0) {
+                states[slot] = CLOSED;
+                timers.schedule(slot, now + lateGraceMillis);
+                return;
+            }
+        }
+        release(slot);
+    }
+
+    private void close(int slot) {
+        openCount--;
+        closedThisRound++;
+        BidResponse winner = bestBids[slot];
+        long clearing = type.clearingPrice(bestPrices[slot], secondPrices[slot], reservePriceMicros, priceIncrementMicros);
+        notices.accept(new WinNotice(
+            winner.impressionId(),
+            winner.campaignId(),
+            winner.advertiserId(),
+            winner.bidPriceMicros(),
+            clearing,
+            bidCounts[slot]
+        ));
+    }
+
+    private void release(int slot) {
+        slotsByImpression.remove(keys[slot]);
+        states[slot] = FREE;
+        bestBids[slot] = null;
+        free[freeCount++] = slot;
+    }
+
+    /**
+     * 64-bit FNV-1a over the id's chars, finished with the MurmurHash3 mixer so the low
+     * bits (the table index) depend on every char. Never 0, which marks an empty table slot.
+     */
+    static long hash(String impressionId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < impressionId.length(); i++) {
+            h ^= impressionId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1L;
+    }
+}
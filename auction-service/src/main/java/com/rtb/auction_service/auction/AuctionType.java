@@ -0,0 +1,31 @@
+package com.rtb.auction_service.auction;
+
+/**
+ * How the clearing price of an auction is derived from its bids. All prices are CPM micros.
+ */
+public enum AuctionType {
+
+    /** The winner pays what it bid. */
+    FIRST_PRICE {
+        @Override
+        long clearingPrice(long best, long second, long reserve, long increment) {
+            return best;
+        }
+    },
+
+    /**
+     * The winner pays the higher of the runner-up bid and the reserve, plus one
+     * increment, and never more than it bid. A lone bid clears at reserve + increment.
+     */
+    SECOND_PRICE {
+        @Override
+        long clearingPrice(long best, long second, long reserve, long increment) {
+            return Math.min(best, Math.max(second, reserve) + increment);
+        }
+    };
+
+    /**
+     * @param second the runner-up bid, or 0 if there was only one
+     */
+    abstract long clearingPrice(long best, long second, long reserve, long increment);
+}
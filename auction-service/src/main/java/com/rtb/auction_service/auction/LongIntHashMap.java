@@ -0,0 +1,79 @@
+package com.rtb.auction_service.auction;
+
+/**
+ * Open-addressing map from a non-zero long key to an int, with no per-entry objects.
+ *
+ * Two flat arrays and linear probing: a lookup is a few sequential reads, and removal
+ * shifts the following entries back instead of leaving tombstones, so probe chains stay
+ * short however many auctions come and go. Sized once for a fixed maximum number of
+ * entries at a load factor of at most 0.5; it never resizes. Keys are expected to be
+ * well-mixed hashes already. Not thread-safe.
+ */
+final class LongIntHashMap {
+
+    static final int MISSING = -1;
+
+    private final long[] keys; // 0 = empty
+    private final int[] values;
+    private final int mask;
+
+    LongIntHashMap(int maxEntries) {
+        int capacity = Integer.highestOneBit(Math.max(2, maxEntries) * 2 - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    int get(long key) {
+        for (int i = index(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces a mapping. The caller guarantees there is room (see the constructor).
+     */
+    void put(long key, int value) {
+        int i = index(key);
+        while (keys[i] != 0 && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    int remove(long key) {
+        int i = index(key);
+        while (keys[i] != key) {
+            if (keys[i] == 0) {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+
+        // Backward-shift: pull later entries of the probe chain into the hole, unless
+        // that would move them in front of their home slot.
+        int hole = i;
+        for (int j = (hole + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = index(keys[j]);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = 0;
+        return removed;
+    }
+
+    private int index(long key) {
+        return (int) key & mask;
+    }
+}
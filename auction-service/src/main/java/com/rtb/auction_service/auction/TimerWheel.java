@@ -0,0 +1,85 @@
+package com.rtb.auction_service.auction;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Hashed timer wheel over int slot numbers (0 .. slots-1), with no per-timer objects.
+ *
+ * Time is cut into ticks of tickMillis. Each bucket is an intrusive singly linked list
+ * threaded through the next[] array, so scheduling is O(1) and expiring a tick only
+ * touches the timers due in it. A timer more than one rotation away simply stays in its
+ * bucket until its recorded due tick comes round. Each slot can hold one timer at a
+ * time. Not thread-safe.
+ */
+final class TimerWheel {
+
+    private static final int NONE = -1;
+
+    private final long tickMillis;
+    private final int[] heads;
+    private final int mask;
+    private final int[] next;
+    private final long[] dueTick;
+
+    // Every tick up to and including this one has been expired.
+    private long currentTick;
+
+    /**
+     * @param maxDelayMillis the longest delay normally scheduled; the wheel gets one
+     *                       bucket per tick of it, so such timers never wait a rotation
+     */
+    TimerWheel(int slots, long tickMillis, long maxDelayMillis, long nowMillis) {
+        if (tickMillis < 1) {
+            throw new IllegalArgumentException("tick must be at least 1 ms");
+        }
+        int buckets = Integer.highestOneBit((int) Math.min(1 << 20, maxDelayMillis / tickMillis + 2) * 2 - 1);
+        this.tickMillis = tickMillis;
+        this.heads = new int[buckets];
+        this.mask = buckets - 1;
+        this.next = new int[slots];
+        this.dueTick = new long[slots];
+        this.currentTick = nowMillis / tickMillis;
+        Arrays.fill(heads, NONE);
+    }
+
+    /**
+     * Fires the slot on the first {@link #advance} at or after deadlineMillis (rounded up
+     * to the next tick).
+     */
+    void schedule(int slot, long deadlineMillis) {
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        dueTick[slot] = tick;
+        push(slot, (int) tick & mask);
+    }
+
+    /**
+     * Hands every slot that is due by nowMillis to expired, which may reschedule it.
+     */
+    void advance(long nowMillis, IntConsumer expired) {
+        long target = nowMillis / tickMillis;
+        // After a long pause every bucket is visited once rather than once per missed tick.
+        long from = Math.max(currentTick + 1, target - mask);
+        for (long tick = from; tick <= target; tick++) {
+            currentTick = tick;
+            int bucket = (int) tick & mask;
+            int slot = heads[bucket];
+            heads[bucket] = NONE;
+            while (slot != NONE) {
+                int following = next[slot];
+                if (dueTick[slot] <= target) {
+                    expired.accept(slot);
+                } else {
+                    push(slot, bucket); // due on a later rotation
+                }
+                slot = following;
+            }
+        }
+        currentTick = Math.max(currentTick, target);
+    }
+
+    private void push(int slot, int bucket) {
+        next[slot] = heads[bucket];
+        heads[bucket] = slot;
+    }
+}
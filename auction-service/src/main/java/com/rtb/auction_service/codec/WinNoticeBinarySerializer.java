@@ -0,0 +1,17 @@
+package com.rtb.auction_service.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.rtb.wire.WinNoticeCodec;
+import com.rtb.wire.dto.WinNotice;
+
+/**
+ * Writes win notices in the binary wire format (see {@link WinNoticeCodec}).
+ */
+public class WinNoticeBinarySerializer implements Serializer<WinNotice> {
+
+    @Override
+    public byte[] serialize(String topic, WinNotice data) {
+        return data == null ? null : WinNoticeCodec.encode(data);
+    }
+}
@@ -0,0 +1,134 @@
+package com.rtb.auction_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.rtb.auction_service.auction.AuctionBook;
+import com.rtb.auction_service.auction.AuctionBook.Offer;
+import com.rtb.auction_service.auction.AuctionType;
+import com.rtb.publish.KafkaPublisher;
+import com.rtb.wire.dto.BidResponse;
+import com.rtb.wire.dto.WinNotice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Owns the {@link AuctionBook}: feeds it the consumed bids and, every tick, closes the
+ * auctions whose window has ended and publishes their win notices.
+ *
+ * The book is single-threaded, so both sides take this object's lock. Each holds it for
+ * a handful of array writes per bid or per closed auction; sending to Kafka happens
+ * after the lock is released.
+ *
+ * A closed auction is gone from the book, so its win notice is the only record of the
+ * sale. Notices go through a {@link KafkaPublisher}, which bounds the unacknowledged
+ * sends and counts and logs every failed or rejected one; under rtb.budget.charge-on=WIN
+ * each of those is an impression the bidder never charges.
+ *
+ * Metrics: rtb.auction.bids{result=accepted|below_reserve|late|full|collision},
+ * rtb.auction.closed, rtb.auction.bids.per.auction, rtb.auction.open,
+ * rtb.auction.slots.used and rtb.publisher.*{topic=win-notices}.
+ */
+@Service
+public class AuctionService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuctionService.class);
+
+    private final AuctionBook book;
+    private final KafkaPublisher<String, WinNotice> publisher;
+
+    // Indexed by Offer.ordinal().
+    private final Counter[] bids = new Counter[Offer.values().length];
+    private final Counter closed;
+    private final DistributionSummary bidsPerAuction;
+
+    public AuctionService(KafkaTemplate<String, WinNotice> kafkaTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${rtb.auction.type:SECOND_PRICE}") AuctionType type,
+                          @Value("${rtb.auction.window-ms:100}") long windowMs,
+                          @Value("${rtb.auction.late-grace-ms:1000}") long lateGraceMs,
+                          @Value("${rtb.auction.tick-ms:10}") long tickMs,
+                          @Value("${rtb.auction.max-auctions:1048576}") int maxAuctions,
+                          @Value("${rtb.auction.reserve-price-micros:0}") long reservePriceMicros,
+                          @Value("${rtb.auction.price-increment-micros:10000}") long priceIncrementMicros,
+                          @Value("${rtb.auction.win-notice-topic:win-notices}") String winNoticeTopic,
+                          @Value("${rtb.publisher.max-in-flight:10000}") int maxInFlight,
+                          @Value("${rtb.publisher.max-block-ms:1000}") long maxBlockMillis) {
+        this.publisher = new KafkaPublisher<>(kafkaTemplate, winNoticeTopic, maxInFlight, maxBlockMillis,
+                meterRegistry);
+        this.book = new AuctionBook(maxAuctions, type, windowMs, lateGraceMs, tickMs,
+                reservePriceMicros, priceIncrementMicros, now());
+
+        for (Offer offer : Offer.values()) {
+            bids[offer.ordinal()] = Counter.builder("rtb.auction.bids")
+                .tag("result", offer.name().toLowerCase(Locale.ROOT))
+                .description("Bids received, by what the auction book did with them")
+                .register(meterRegistry);
+        }
+        this.closed = Counter.builder("rtb.auction.closed")
+            .description("Auctions closed and handed their win notice to the publisher")
+            .register(meterRegistry);
+        this.bidsPerAuction = DistributionSummary.builder("rtb.auction.bids.per.auction")
+            .description("Bids competing in each closed auction")
+            .register(meterRegistry);
+        Gauge.builder("rtb.auction.open", this, AuctionService::openAuctions)
+            .description("Auctions whose window is still open")
+            .register(meterRegistry);
+        Gauge.builder("rtb.auction.slots.used", this, AuctionService::usedSlots)
+            .description("Auction book slots in use, including closed auctions in their late grace")
+            .register(meterRegistry);
+
+        log.info("{} auctions, {} ms window, capacity {} auctions", type, windowMs, maxAuctions);
+    }
+
+    public void offer(List<BidResponse> responses) {
+        long now = now();
+        synchronized (this) {
+            for (BidResponse bid : responses) {
+                if (bid == null || bid.impressionId() == null) {
+                    continue;
+                }
+                bids[book.offer(bid, now).ordinal()].increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${rtb.auction.tick-ms:10}")
+    public void closeExpired() {
+        List<WinNotice> notices = new ArrayList<>();
+        synchronized (this) {
+            book.closeExpired(now(), notices::add);
+        }
+        for (WinNotice notice : notices) {
+            // Keyed by impression, like the bids it settles.
+            publisher.send(notice.impressionId(), notice);
+            bidsPerAuction.record(notice.bidCount());
+        }
+        closed.increment(notices.size());
+    }
+
+    synchronized int openAuctions() {
+        return book.openAuctions();
+    }
+
+    synchronized int usedSlots() {
+        return book.usedSlots();
+    }
+
+    // Windows are measured on the monotonic clock, so a wall-clock step cannot close or
+    // stretch every open auction at once.
+    private static long now() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
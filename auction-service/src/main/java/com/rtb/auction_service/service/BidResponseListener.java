@@ -0,0 +1,34 @@
+package com.rtb.auction_service.service;
+
+import java.util.List;
+
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * Consumes bid-responses a poll at a time, so the auction book's lock is taken once per
+ * batch rather than once per bid.
+ *
+ * The bidders key responses by impressionId, so every bid for one impression lands on
+ * the same partition. While partitions move between replicas during a rebalance, an
+ * impression's bids can be split between two books; each then closes its own auction,
+ * which is the accepted cost of keeping the books independent.
+ */
+@Component
+public class BidResponseListener {
+
+    private final AuctionService auctionService;
+
+    public BidResponseListener(AuctionService auctionService) {
+        this.auctionService = auctionService;
+    }
+
+    @KafkaListener(topics = "${rtb.auction.bid-response-topic:bid-responses}",
+                   groupId = "${spring.kafka.consumer.group-id}", batch = "true",
+                   concurrency = "${rtb.auction.listener.concurrency:3}")
+    public void onBidResponses(List<BidResponse> responses) {
+        auctionService.offer(responses);
+    }
+}
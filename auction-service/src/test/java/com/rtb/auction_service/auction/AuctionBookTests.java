@@ -0,0 +1,109 @@
+package com.rtb.auction_service.auction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.rtb.auction_service.auction.AuctionBook.Offer;
+import com.rtb.wire.dto.BidResponse;
+import com.rtb.wire.dto.WinNotice;
+
+class AuctionBookTests {
+
+	private static final long WINDOW = 100;
+	private static final long GRACE = 1000;
+
+	private final List<WinNotice> notices = new ArrayList<>();
+
+	@Test
+	void secondPriceWinnerPaysRunnerUpPlusIncrement() {
+		AuctionBook book = book(AuctionType.SECOND_PRICE, 16);
+
+		book.offer(bid("imp-1", "1", 500_000), 0);
+		book.offer(bid("imp-1", "2", 900_000), 10);
+		book.offer(bid("imp-1", "3", 700_000), 20);
+
+		assertThat(book.closeExpired(WINDOW - 1, notices::add)).isZero();
+		assertThat(book.closeExpired(WINDOW + 10, notices::add)).isEqualTo(1);
+		assertThat(notices).containsExactly(new WinNotice("imp-1", "2", "79", 900_000, 710_000, 3));
+	}
+
+	@Test
+	void firstPriceAndLoneBidsAndTies() {
+		AuctionBook first = book(AuctionType.FIRST_PRICE, 16);
+		first.offer(bid("imp-1", "1", 500_000), 0);
+		first.offer(bid("imp-1", "2", 900_000), 0);
+		first.closeExpired(WINDOW + 10, notices::add);
+		assertThat(notices.get(0).clearingPriceMicros()).isEqualTo(900_000);
+
+		AuctionBook second = book(AuctionType.SECOND_PRICE, 16);
+		second.offer(bid("imp-2", "1", 500_000), 0);
+		second.offer(bid("imp-3", "1", 500_000), 0);
+		second.offer(bid("imp-3", "2", 500_000), 0);
+		second.closeExpired(WINDOW + 10, notices::add);
+		// A lone bid clears at reserve (0) + increment; a tie goes to the first bid at its own price.
+		assertThat(notices.subList(1, 3)).containsExactlyInAnyOrder(
+				new WinNotice("imp-2", "1", "79", 500_000, 10_000, 1),
+				new WinNotice("imp-3", "1", "79", 500_000, 500_000, 2));
+	}
+
+	@Test
+	void lateBidsDoNotReopenTheAuctionUntilGraceEnds() {
+		AuctionBook book = book(AuctionType.SECOND_PRICE, 16);
+		book.offer(bid("imp-1", "1", 500_000), 0);
+		book.closeExpired(WINDOW + 10, notices::add);
+
+		assertThat(book.offer(bid("imp-1", "2", 900_000), WINDOW + 20)).isEqualTo(Offer.LATE);
+		assertThat(book.usedSlots()).isEqualTo(1);
+
+		book.closeExpired(WINDOW + GRACE + 30, notices::add);
+		assertThat(book.usedSlots()).isZero();
+		assertThat(notices).hasSize(1);
+	}
+
+	@Test
+	void slotsAreReusedAndCapacityIsEnforced() {
+		AuctionBook book = book(AuctionType.SECOND_PRICE, 100);
+		long now = 0;
+		// Many more auctions than slots, spread over time, all close and free their slots.
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(book.offer(bid("imp-" + i, "1", 500_000), now)).isEqualTo(Offer.ACCEPTED);
+			now += 15;
+			book.closeExpired(now, notices::add);
+		}
+		now += WINDOW + 10;
+		book.closeExpired(now, notices::add);
+		assertThat(notices).hasSize(10_000);
+		now += GRACE + 10;
+		book.closeExpired(now, notices::add);
+		assertThat(book.usedSlots()).isZero();
+
+		for (int i = 0; i < 100; i++) {
+			book.offer(bid("burst-" + i, "1", 500_000), now);
+		}
+		assertThat(book.offer(bid("one-too-many", "1", 500_000), now)).isEqualTo(Offer.FULL);
+		assertThat(book.openAuctions()).isEqualTo(100);
+	}
+
+	@Test
+	void bidsBelowReserveAreIgnored() {
+		AuctionBook book = new AuctionBook(16, AuctionType.SECOND_PRICE, WINDOW, GRACE, 10, 300_000, 10_000, 0);
+
+		assertThat(book.offer(bid("imp-1", "1", 200_000), 0)).isEqualTo(Offer.BELOW_RESERVE);
+		book.offer(bid("imp-1", "2", 400_000), 0);
+		book.closeExpired(WINDOW + 10, notices::add);
+
+		assertThat(notices).containsExactly(new WinNotice("imp-1", "2", "79", 400_000, 310_000, 1));
+	}
+
+	private static AuctionBook book(AuctionType type, int maxAuctions) {
+		return new AuctionBook(maxAuctions, type, WINDOW, GRACE, 10, 0, 10_000, 0);
+	}
+
+	private static BidResponse bid(String impressionId, String campaignId, long priceMicros) {
+		return new BidResponse(impressionId, campaignId, "79", priceMicros);
+	}
+}
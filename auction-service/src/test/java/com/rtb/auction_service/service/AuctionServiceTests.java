@@ -0,0 +1,45 @@
+package com.rtb.auction_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import com.rtb.auction_service.auction.AuctionType;
+import com.rtb.wire.dto.BidResponse;
+import com.rtb.wire.dto.WinNotice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AuctionServiceTests {
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void failedWinNoticeSendIsCounted() throws Exception {
+		KafkaTemplate<String, WinNotice> template = mock(KafkaTemplate.class);
+		when(template.send(anyString(), anyString(), any(WinNotice.class)))
+				.thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		AuctionService service = new AuctionService(template, registry, AuctionType.SECOND_PRICE,
+				1, 1000, 1, 16, 0, 10_000, "win-notices", 10, 100);
+
+		service.offer(List.of(new BidResponse("imp-1", "1", "79", 900_000)));
+		Thread.sleep(20);
+		service.closeExpired();
+
+		verify(template).send(eq("win-notices"), eq("imp-1"), any(WinNotice.class));
+		assertThat(registry.get("rtb.publisher.sends").tags("topic", "win-notices", "result", "failed")
+				.counter().count()).isEqualTo(1.0);
+		assertThat(registry.get("rtb.publisher.in-flight").gauge().value()).isZero();
+	}
+}
@@ -0,0 +1,113 @@
+package com.rtb.bidder_benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.model.PacingMode;
+import com.rtb.bidder_service.repository.CampaignRepository;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Deterministic campaign and request fixtures shared by the benchmarks.
+ *
+ * Campaigns are spread over a fixed set of advertisers; each targets one geo and one OS
+ * drawn from targetingCardinality distinct values per dimension, and a quarter of them
+ * exclude a site as well. Requests are drawn from the same value space, so the match rate
+ * falls as cardinality grows, just as it does with a wider real-world campaign mix.
+ */
+final class BenchmarkCampaigns {
+
+    // The advertisers that dominate the Kaggle traffic the simulator replays.
+    static final String[] ADVERTISERS = {"79", "88", "90", "97", "139"};
+
+    private static final long SEED = 42L;
+    private static final Instant FLIGHT_START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private BenchmarkCampaigns() {}
+
+    static List<Campaign> campaigns(int campaignCount, int targetingCardinality) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Campaign> campaigns = new ArrayList<>(campaignCount);
+        for (int i = 0; i < campaignCount; i++) {
+            Campaign campaign = new Campaign(
+                ADVERTISERS[i % ADVERTISERS.length],
+                new BigDecimal("1000000000.00"), // never runs out during a benchmark
+                geo(random.nextInt(targetingCardinality)),
+                os(random.nextInt(targetingCardinality)),
+                BigDecimal.valueOf(10 + random.nextInt(90), 2));
+            if (i % 4 == 0) {
+                campaign.setTargeting("!" + site(random.nextInt(targetingCardinality)), null, null);
+            }
+            campaign.setFlight(FLIGHT_START, null);
+            campaign.setPacing(PacingMode.ASAP);
+            setId(campaign, i + 1L);
+            campaigns.add(campaign);
+        }
+        return campaigns;
+    }
+
+    static BidRequest[] requests(int count, int targetingCardinality) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        BidRequest[] requests = new BidRequest[count];
+        for (int i = 0; i < count; i++) {
+            requests[i] = new BidRequest(
+                UUID.randomUUID().toString(),
+                site(random.nextInt(targetingCardinality)),
+                "17",
+                geo(random.nextInt(targetingCardinality)),
+                "2",
+                ADVERTISERS[random.nextInt(ADVERTISERS.length)],
+                os(random.nextInt(targetingCardinality)));
+        }
+        return requests;
+    }
+
+    /**
+     * A CampaignRepository over a fixed list, for code that only reads campaigns.
+     */
+    static CampaignRepository repository(List<Campaign> campaigns) {
+        return (CampaignRepository) Proxy.newProxyInstance(CampaignRepository.class.getClassLoader(),
+                new Class<?>[] {CampaignRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findAll" -> campaigns;
+                    // A mutable ArrayList, like the JPA result it stands in for.
+                    case "findByAdvertiserId" -> campaigns.stream()
+                            .filter(c -> c.getAdvertiserId().equals(args[0]))
+                            .collect(Collectors.toCollection(ArrayList::new));
+                    case "toString" -> "BenchmarkCampaignRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Ids mirror the Kaggle dataset's small decimals: 187, 56, 342...
+    private static String geo(int n) {
+        return String.valueOf(100 + n);
+    }
+
+    private static String os(int n) {
+        return String.valueOf(50 + n);
+    }
+
+    private static String site(int n) {
+        return String.valueOf(300 + n);
+    }
+
+    private static void setId(Campaign campaign, long id) {
+        try {
+            Field field = Campaign.class.getDeclaredField("id");
+            field.setAccessible(true);
+            field.set(campaign, id);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
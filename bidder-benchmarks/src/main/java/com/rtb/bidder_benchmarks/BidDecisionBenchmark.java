@@ -0,0 +1,115 @@
+package com.rtb.bidder_benchmarks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.rtb.bidder_service.budget.BudgetManager;
+import com.rtb.bidder_service.budget.ChargePoint;
+import com.rtb.bidder_service.capping.CappingMode;
+import com.rtb.bidder_service.capping.FrequencyCapper;
+import com.rtb.bidder_service.metrics.BidMetrics;
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.model.PacingMode;
+import com.rtb.bidder_service.repository.CampaignRepository;
+import com.rtb.bidder_service.service.BidDecisionService;
+import com.rtb.bidder_service.service.BidSink;
+import com.rtb.bidder_service.service.CampaignIndexService;
+import com.rtb.bidder_service.service.CampaignSelector;
+import com.rtb.bidder_service.service.CampaignService;
+import com.rtb.bidder_service.service.TieBreakers;
+import com.rtb.wire.dto.BidRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * The whole bid decision the Kafka listener makes per request, minus Kafka and logging:
+ * index snapshot, targeting, budget-aware selection, spend accounting and building the
+ * BidResponse. Bids go to a Blackhole instead of the producer.
+ *
+ * The default run covers campaignCount x targetingCardinality only (9 rows, a few
+ * minutes). The other parameters are pinned to the production defaults; compare them by
+ * listing values on the command line, one question at a time:
+ *
+ *   java -jar target/benchmarks.jar BidDecisionBenchmark -prof gc
+ *   java -jar target/benchmarks.jar BidDecisionBenchmark -p campaignCount=1000 -p targetingCardinality=16 -p capping=OFF,EXACT,SKETCH
+ *   java -jar target/benchmarks.jar BidDecisionBenchmark -p campaignCount=1000 -p targetingCardinality=16 -p stageSampleEvery=0,64,1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class BidDecisionBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    @Param({"10", "1000", "10000"})
+    public int campaignCount;
+
+    @Param({"1", "16", "256"})
+    public int targetingCardinality;
+
+    // Pinned; pass -p maxBidsPerImpression=1,3 to compare.
+    @Param({"1"})
+    public int maxBidsPerImpression;
+
+    // rtb.metrics.stages.sample-every: 0 is no stage timing, 1 times every request.
+    // Pinned to the production default; pass -p stageSampleEvery=0,64,1 to compare.
+    @Param({"64"})
+    public int stageSampleEvery;
+
+    // rtb.capping.mode, with a default cap no campaign reaches, so every check passes.
+    // Pinned to the production default; pass -p capping=OFF,EXACT,SKETCH to compare.
+    @Param({"EXACT"})
+    public CappingMode capping;
+
+    private BidDecisionService decisions;
+    private BidRequest[] requests;
+    private BidSink sink;
+    private int next;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        // Bound once, like the listener's publisher, so the sink is not a per-call allocation.
+        sink = blackhole::consume;
+
+        List<Campaign> campaigns = BenchmarkCampaigns.campaigns(campaignCount, targetingCardinality);
+        CampaignRepository repository = BenchmarkCampaigns.repository(campaigns);
+
+        BudgetManager budgets = new BudgetManager(new SimpleMeterRegistry(), PacingMode.ASAP);
+        CampaignService campaignService = new CampaignService();
+        CampaignIndexService indexService = new CampaignIndexService(repository, budgets, TieBreakers.LOWEST_ID,
+                campaignService, false);
+        indexService.refresh();
+
+        FrequencyCapper capper = new FrequencyCapper(new SimpleMeterRegistry(), capping, Duration.ofMinutes(10), 10,
+                Integer.MAX_VALUE, 65536, 16384, 4);
+        decisions = new BidDecisionService(indexService, new CampaignSelector(TieBreakers.LOWEST_ID, capper, maxBidsPerImpression),
+                // The production registry: timer cost depends heavily on the implementation.
+                new BidMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), stageSampleEvery, 200),
+                ChargePoint.BID);
+        requests = BenchmarkCampaigns.requests(REQUESTS, targetingCardinality);
+    }
+
+    @Benchmark
+    public int decide() {
+        return decisions.decide(requests[next++ & (REQUESTS - 1)], sink);
+    }
+}
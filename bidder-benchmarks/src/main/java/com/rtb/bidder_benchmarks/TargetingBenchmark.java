@@ -0,0 +1,74 @@
+package com.rtb.bidder_benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.rtb.bidder_service.service.CampaignIndex;
+import com.rtb.bidder_service.service.CampaignIndex.Match;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Targeting evaluation alone: one request against the in-memory campaign index.
+ *
+ * firstMatch is what the selector pays when the best campaign is eligible; allMatches
+ * walks every matching campaign, the worst case when budgets block the top ranks.
+ *
+ *   java -jar target/benchmarks.jar TargetingBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TargetingBenchmark {
+
+    private static final int REQUESTS = 1024;
+
+    @Param({"10", "1000", "10000"})
+    public int campaignCount;
+
+    @Param({"1", "16", "256"})
+    public int targetingCardinality;
+
+    private CampaignIndex index;
+    private BidRequest[] requests;
+    private final Match match = new Match();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = CampaignIndex.build(BenchmarkCampaigns.campaigns(campaignCount, targetingCardinality));
+        requests = BenchmarkCampaigns.requests(REQUESTS, targetingCardinality);
+    }
+
+    @Benchmark
+    public int firstMatch() {
+        return index.lookup(nextRequest(), match).nextMatch(0);
+    }
+
+    @Benchmark
+    public int allMatches() {
+        Match matched = index.lookup(nextRequest(), match);
+        int count = 0;
+        for (int rank = matched.nextMatch(0); rank >= 0; rank = matched.nextMatch(rank + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private BidRequest nextRequest() {
+        return requests[next++ & (REQUESTS - 1)];
+    }
+}
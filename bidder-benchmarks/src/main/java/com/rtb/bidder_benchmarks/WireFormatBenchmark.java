@@ -0,0 +1,114 @@
+package com.rtb.bidder_benchmarks;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.rtb.bidder_service.codec.BidRequestDeserializer;
+import com.rtb.bidder_service.codec.BidResponseBinarySerializer;
+import com.rtb.wire.BidRequestCodec;
+import com.rtb.wire.dto.BidRequest;
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * The JSON path the services have always used (Spring's JsonSerializer/JsonDeserializer,
+ * configured exactly as in application.properties) against the binary wire format.
+ *
+ * Run with the GC profiler to see allocation per message as well as time:
+ *   java -jar target/benchmarks.jar WireFormatBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class WireFormatBenchmark {
+
+    private static final String REQUEST_TOPIC = "bid-requests";
+    private static final String RESPONSE_TOPIC = "bid-responses";
+
+    private JsonDeserializer<BidRequest> jsonRequestDeserializer;
+    private BidRequestDeserializer binaryRequestDeserializer;
+    private JsonSerializer<BidResponse> jsonResponseSerializer;
+    private BidResponseBinarySerializer binaryResponseSerializer;
+
+    private byte[] jsonRequest;
+    private byte[] binaryRequest;
+    private BidResponse response;
+
+    @Setup
+    public void setUp() {
+        BidRequest request = new BidRequest(UUID.randomUUID().toString(), "342", "17", "187", "2", "79", "56");
+
+        // Mirrors the bidder's old consumer configuration.
+        jsonRequestDeserializer = new JsonDeserializer<>();
+        jsonRequestDeserializer.configure(Map.of(
+                JsonDeserializer.VALUE_DEFAULT_TYPE, BidRequest.class.getName(),
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false), false);
+        binaryRequestDeserializer = new BidRequestDeserializer();
+
+        // Mirrors the bidder's producer configuration, including the type-mapping header.
+        jsonResponseSerializer = new JsonSerializer<>();
+        jsonResponseSerializer.configure(Map.of(
+                JsonSerializer.TYPE_MAPPINGS, "bidResp:" + BidResponse.class.getName()), false);
+        binaryResponseSerializer = new BidResponseBinarySerializer();
+
+        // The simulator has always produced headerless JSON.
+        JsonSerializer<BidRequest> simulatorSerializer = new JsonSerializer<>();
+        simulatorSerializer.configure(Map.of(JsonSerializer.ADD_TYPE_INFO_HEADERS, false), false);
+        jsonRequest = simulatorSerializer.serialize(REQUEST_TOPIC, request);
+        simulatorSerializer.close();
+        binaryRequest = BidRequestCodec.encode(request);
+
+        response = new BidResponse(request.impressionId(), "17", "79", 750_000L);
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonRequestDeserializer.close();
+        jsonResponseSerializer.close();
+    }
+
+    @Benchmark
+    public BidRequest requestJson() {
+        return jsonRequestDeserializer.deserialize(REQUEST_TOPIC, new RecordHeaders(), jsonRequest);
+    }
+
+    @Benchmark
+    public BidRequest requestBinary() {
+        return binaryRequestDeserializer.deserialize(REQUEST_TOPIC, binaryRequest);
+    }
+
+    // What the bidder pays for JSON traffic while the simulator is still on JSON.
+    @Benchmark
+    public BidRequest requestJsonViaAutoDetect() {
+        return binaryRequestDeserializer.deserialize(REQUEST_TOPIC, jsonRequest);
+    }
+
+    @Benchmark
+    public byte[] responseJson() {
+        return jsonResponseSerializer.serialize(RESPONSE_TOPIC, new RecordHeaders(), response);
+    }
+
+    @Benchmark
+    public byte[] responseBinary() {
+        return binaryResponseSerializer.serialize(RESPONSE_TOPIC, response);
+    }
+}
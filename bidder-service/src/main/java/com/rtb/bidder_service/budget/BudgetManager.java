@@ -0,0 +1,95 @@
+package com.rtb.bidder_service.budget;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.model.Money;
+import com.rtb.bidder_service.model.PacingMode;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Holds one {@link CampaignBudget} per campaign and keeps their "can bid" flags current.
+ *
+ * Budget state outlives index rebuilds: every rebuild re-registers the campaigns it
+ * indexed (picking up new budgets and flight dates) and retires the ones it dropped,
+ * so spend is never reset by a refresh. There is no global lock anywhere: the bid path
+ * only reads flags and adds to striped counters, and the pacing tick re-evaluates every
+ * campaign on the scheduler thread.
+ */
+@Service
+public class BudgetManager {
+
+    private final ConcurrentHashMap<Long, CampaignBudget> budgets = new ConcurrentHashMap<>();
+    private final PacingMode defaultPacing;
+
+    public BudgetManager(MeterRegistry meterRegistry,
+                         @Value("${rtb.budget.default-pacing:EVEN}") PacingMode defaultPacing) {
+        this.defaultPacing = defaultPacing;
+
+        Gauge.builder("rtb.budget.campaigns.blocked", budgets, b -> b.values().stream().filter(c -> !c.canBid()).count())
+            .description("Campaigns currently out of budget, outside their flight, or throttled by pacing")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Returns the budget state for this campaign, creating it on first sight, and applies
+     * the campaign's current budget, flight window and pacing.
+     */
+    public CampaignBudget register(Campaign campaign) {
+        CampaignBudget budget = budgets.computeIfAbsent(campaign.getId(),
+                id -> new CampaignBudget(id, toMicros(campaign.getSpent())));
+
+        budget.configure(
+            toMicros(campaign.getBudget()),
+            campaign.getFlightStart() != null ? campaign.getFlightStart().toEpochMilli() : Long.MIN_VALUE,
+            campaign.getFlightEnd() != null ? campaign.getFlightEnd().toEpochMilli() : Long.MAX_VALUE,
+            campaign.getPacing() != null ? campaign.getPacing() : defaultPacing);
+        budget.evaluate(System.currentTimeMillis());
+        return budget;
+    }
+
+    /**
+     * Stops every campaign not in this set from bidding. Their pending spend is still
+     * reconciled; {@link BudgetReconciler} forgets them afterwards.
+     */
+    public void retainOnly(Set<Long> campaignIds) {
+        for (CampaignBudget budget : budgets.values()) {
+            if (!campaignIds.contains(budget.campaignId())) {
+                budget.retire();
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${rtb.budget.pacing-tick-ms:100}")
+    public void evaluateAll() {
+        long now = System.currentTimeMillis();
+        for (CampaignBudget budget : budgets.values()) {
+            budget.evaluate(now);
+        }
+    }
+
+    public CampaignBudget get(long campaignId) {
+        return budgets.get(campaignId);
+    }
+
+    Collection<CampaignBudget> all() {
+        return budgets.values();
+    }
+
+    void forget(CampaignBudget budget) {
+        budgets.remove(budget.campaignId(), budget);
+    }
+
+    private static long toMicros(BigDecimal amount) {
+        return amount != null ? Money.toMicros(amount) : 0L;
+    }
+}
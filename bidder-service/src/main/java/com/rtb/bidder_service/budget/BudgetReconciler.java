@@ -0,0 +1,138 @@
+package com.rtb.bidder_service.budget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.rtb.bidder_service.model.Money;
+import com.rtb.bidder_service.repository.CampaignRepository;
+
+/**
+ * Periodically moves spend from the in-memory counters to the shared stores, off the bid path.
+ *
+ * Each run, per campaign:
+ * 1. Drains the spend recorded since the last run and folds it into the local total, so
+ *    {@link CampaignBudget#canBid()} never sees spend disappear mid-flush.
+ * 2. With rtb.budget.redis-sync.enabled, INCRBYs the delta into rtb:spend:{campaignId}
+ *    and then reads every campaign's global total back in one MGET, so each replica
+ *    paces against what all replicas have spent together. A missing key is first seeded
+ *    with this replica's full settled spend (which starts from campaigns.spent), in the
+ *    same script as the INCRBY, so the shared total never restarts from zero.
+ * 3. Adds the delta to campaigns.spent in Postgres with a single atomic UPDATE.
+ *
+ * A failed write is kept and retried on the next run; bidding carries on either way.
+ */
+@Component
+public class BudgetReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetReconciler.class);
+    static final String REDIS_KEY_PREFIX = "rtb:spend:";
+
+    // KEYS[1] = spend key, ARGV[1] = settled spend (already including the delta),
+    // ARGV[2] = delta. Atomic, so two replicas cannot both seed the same key.
+    static final RedisScript<Long> PUSH_SPEND = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then "
+            + "redis.call('SET', KEYS[1], ARGV[1]) return tonumber(ARGV[1]) end "
+            + "return redis.call('INCRBY', KEYS[1], ARGV[2])",
+            Long.class);
+
+    private final BudgetManager budgetManager;
+    private final CampaignRepository campaignRepository;
+    private final StringRedisTemplate redis;
+
+    public BudgetReconciler(BudgetManager budgetManager,
+                            CampaignRepository campaignRepository,
+                            ObjectProvider<StringRedisTemplate> redis,
+                            @Value("${rtb.budget.redis-sync.enabled:false}") boolean redisSync) {
+        this.budgetManager = budgetManager;
+        this.campaignRepository = campaignRepository;
+        this.redis = redisSync ? redis.getIfAvailable() : null;
+    }
+
+    @Scheduled(fixedDelayString = "${rtb.budget.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        List<CampaignBudget> shared = new ArrayList<>();
+
+        for (CampaignBudget budget : budgetManager.all()) {
+            long delta = budget.drainPendingSpend();
+            if (delta != 0) {
+                budget.addSettled(delta);
+                budget.unflushedDbMicros += delta;
+                if (redis != null) {
+                    budget.unflushedRedisMicros += delta;
+                }
+            }
+
+            if (redis != null) {
+                flushToRedis(budget);
+                shared.add(budget);
+            }
+            flushToPostgres(budget);
+
+            if (budget.isRetired() && budget.unflushedDbMicros == 0 && budget.unflushedRedisMicros == 0) {
+                budgetManager.forget(budget);
+            }
+        }
+
+        if (!shared.isEmpty()) {
+            readGlobalTotals(shared);
+        }
+    }
+
+    private void flushToRedis(CampaignBudget budget) {
+        if (budget.unflushedRedisMicros == 0) {
+            return;
+        }
+        try {
+            redis.execute(PUSH_SPEND, List.of(REDIS_KEY_PREFIX + budget.campaignId()),
+                    String.valueOf(budget.settledSpendMicros()), String.valueOf(budget.unflushedRedisMicros));
+            budget.unflushedRedisMicros = 0;
+        } catch (Exception e) {
+            log.warn("Could not push spend for campaign {} to Redis, will retry", budget.campaignId(), e);
+        }
+    }
+
+    private void flushToPostgres(CampaignBudget budget) {
+        if (budget.unflushedDbMicros == 0) {
+            return;
+        }
+        try {
+            campaignRepository.addSpend(budget.campaignId(), Money.fromMicros(budget.unflushedDbMicros));
+            budget.unflushedDbMicros = 0;
+        } catch (Exception e) {
+            log.warn("Could not reconcile spend for campaign {} to Postgres, will retry", budget.campaignId(), e);
+        }
+    }
+
+    private void readGlobalTotals(List<CampaignBudget> budgets) {
+        List<String> keys = new ArrayList<>(budgets.size());
+        for (CampaignBudget budget : budgets) {
+            keys.add(REDIS_KEY_PREFIX + budget.campaignId());
+        }
+        try {
+            List<String> totals = redis.opsForValue().multiGet(keys);
+            for (int i = 0; i < budgets.size(); i++) {
+                CampaignBudget budget = budgets.get(i);
+                String total = totals != null ? totals.get(i) : null;
+                if (total != null) {
+                    // The global total already includes everything this replica has pushed.
+                    budget.settle(Long.parseLong(total) + budget.unflushedRedisMicros);
+                } else {
+                    // First replica to see this campaign seeds the shared counter.
+                    redis.opsForValue().setIfAbsent(keys.get(i), String.valueOf(budget.settledSpendMicros()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not read global spend from Redis, pacing on local totals", e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.rtb.bidder_service.budget;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.rtb.bidder_service.model.PacingMode;
+
+/**
+ * Live spend and pacing state of one campaign on this replica.
+ *
+ * The bid path touches exactly two things here, neither of which takes a lock:
+ * - {@link #canBid()}: one volatile read.
+ * - {@link #recordSpend(long)}: one LongAdder add, which stripes itself across
+ *   cells under contention so 12+ consumer threads never fight over a cache line.
+ *
+ * Whether the campaign may bid is decided off the bid path by {@link #evaluate(long)},
+ * which {@link BudgetManager} runs on a short fixed tick. Between ticks a campaign can
+ * overshoot its allowance by at most (tick length x its spend rate); that bound is the
+ * price of keeping the check down to a single flag read.
+ */
+public final class CampaignBudget {
+
+    private final long campaignId;
+
+    // Spend recorded on this replica that has not been reconciled yet.
+    private final LongAdder pendingSpendMicros = new LongAdder();
+
+    // Spend already reconciled: this replica's flushed spend, or the global total when
+    // replicas share counters through Redis.
+    private volatile long settledSpendMicros;
+
+    private volatile long budgetMicros;
+    private volatile long flightStartMillis;
+    private volatile long flightEndMillis;
+    private volatile PacingMode pacing;
+
+    private volatile boolean biddable;
+    private volatile boolean retired;
+
+    // Reconciled locally but not yet written to Postgres / Redis. Reconciler thread only.
+    long unflushedDbMicros;
+    long unflushedRedisMicros;
+
+    CampaignBudget(long campaignId, long settledSpendMicros) {
+        this.campaignId = campaignId;
+        this.settledSpendMicros = settledSpendMicros;
+    }
+
+    /**
+     * A budget that never runs out, for indexes built outside the running service
+     * (benchmarks, tests).
+     */
+    public static CampaignBudget unlimited(long campaignId) {
+        CampaignBudget budget = new CampaignBudget(campaignId, 0L);
+        budget.configure(Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE, PacingMode.ASAP);
+        budget.evaluate(System.currentTimeMillis());
+        return budget;
+    }
+
+    public long campaignId() {
+        return campaignId;
+    }
+
+    /**
+     * Constant-time check for candidate selection: false once the campaign is out of
+     * budget, outside its flight, or ahead of its pacing curve.
+     */
+    public boolean canBid() {
+        return biddable;
+    }
+
+    public void recordSpend(long micros) {
+        pendingSpendMicros.add(micros);
+    }
+
+    /**
+     * Best local estimate of total spend: reconciled spend plus what is still pending here.
+     */
+    public long spendMicros() {
+        return settledSpendMicros + pendingSpendMicros.sum();
+    }
+
+    public long budgetMicros() {
+        return budgetMicros;
+    }
+
+    void configure(long budgetMicros, long flightStartMillis, long flightEndMillis, PacingMode pacing) {
+        this.budgetMicros = budgetMicros;
+        this.flightStartMillis = flightStartMillis;
+        this.flightEndMillis = flightEndMillis;
+        this.pacing = pacing;
+        this.retired = false;
+    }
+
+    /**
+     * Recomputes {@link #canBid()} for this instant.
+     */
+    void evaluate(long nowMillis) {
+        if (retired || nowMillis < flightStartMillis || nowMillis >= flightEndMillis) {
+            biddable = false;
+            return;
+        }
+        biddable = spendMicros() < allowedSpendMicros(nowMillis);
+    }
+
+    long allowedSpendMicros(long nowMillis) {
+        long budget = budgetMicros;
+        if (pacing != PacingMode.EVEN || flightEndMillis == Long.MAX_VALUE || flightStartMillis == Long.MIN_VALUE) {
+            return budget;
+        }
+        long elapsed = nowMillis - flightStartMillis;
+        long length = flightEndMillis - flightStartMillis;
+        if (elapsed >= length) {
+            return budget;
+        }
+        // budget x elapsed / length without overflowing a long for large budgets.
+        return (long) ((double) budget * elapsed / length);
+    }
+
+    /**
+     * Takes the spend recorded since the last call. Concurrent adds are never lost:
+     * they land either in this delta or in the next one.
+     */
+    long drainPendingSpend() {
+        return pendingSpendMicros.sumThenReset();
+    }
+
+    long settledSpendMicros() {
+        return settledSpendMicros;
+    }
+
+    void addSettled(long micros) {
+        this.settledSpendMicros += micros; // only the reconciler thread writes this
+    }
+
+    void settle(long settledSpendMicros) {
+        this.settledSpendMicros = settledSpendMicros;
+    }
+
+    void retire() {
+        this.retired = true;
+        this.biddable = false;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rtb.bidder_service.budget;
+
+/**
+ * When a campaign's budget is charged for an impression (rtb.budget.charge-on).
+ */
+public enum ChargePoint {
+
+    /**
+     * Charge the bid price as soon as the bid is sent. Needs nothing else running, but
+     * also charges for auctions the campaign goes on to lose.
+     */
+    BID,
+
+    /**
+     * Charge only what the winner pays, from the auction-service's win notices. Spend
+     * then trails the bids by the auction window plus the notice's trip back.
+     */
+    WIN
+}
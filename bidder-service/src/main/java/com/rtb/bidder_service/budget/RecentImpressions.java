@@ -0,0 +1,90 @@
+package com.rtb.bidder_service.budget;
+
+import java.util.Arrays;
+
+/**
+ * The impressions charged most recently on this replica, for dropping redelivered win notices.
+ *
+ * Two generations of open-addressing tables of 64-bit impression hashes. Ids go into the
+ * current generation; once it is half full, the older generation is wiped and the two
+ * swap. So the set always remembers at least the last capacity / 2 impressions and at
+ * most the last capacity, in 16 x capacity bytes allocated once. Kafka redelivers a
+ * batch within seconds of the original delivery, far inside that horizon at any
+ * realistic win rate.
+ *
+ * Two ids with the same 64-bit hash count as the same impression, so a clash drops a
+ * genuine charge; at a million remembered ids that is about one in 10^13.
+ *
+ * Not thread-safe: WinNoticeListener serialises access.
+ */
+public final class RecentImpressions {
+
+    private final int mask;
+    private final int generationLimit;
+    private long[] current;
+    private long[] previous;
+    private int currentSize;
+
+    public RecentImpressions(int capacity) {
+        if (capacity < 16 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("rtb.budget.win-notices.dedup-capacity must be a power of two, at least 16");
+        }
+        this.mask = capacity - 1;
+        this.generationLimit = capacity / 2;
+        this.current = new long[capacity];
+        this.previous = new long[capacity];
+    }
+
+    /**
+     * Remembers the impression. Returns false if it was already remembered.
+     */
+    public boolean add(String impressionId) {
+        long key = hash(impressionId);
+        if (contains(previous, key) || contains(current, key)) {
+            return false;
+        }
+        if (currentSize == generationLimit) {
+            long[] recycled = previous;
+            Arrays.fill(recycled, 0L);
+            previous = current;
+            current = recycled;
+            currentSize = 0;
+        }
+        int index = (int) key & mask;
+        while (current[index] != 0L) {
+            index = (index + 1) & mask;
+        }
+        current[index] = key;
+        currentSize++;
+        return true;
+    }
+
+    private boolean contains(long[] table, long key) {
+        int index = (int) key & mask;
+        while (table[index] != 0L) {
+            if (table[index] == key) {
+                return true;
+            }
+            index = (index + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 64-bit FNV-1a over the id's chars, finished with the MurmurHash3 mixer so the low
+     * bits (the table index) depend on every char. Never 0, which marks an empty slot.
+     */
+    static long hash(String impressionId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < impressionId.length(); i++) {
+            h ^= impressionId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1L;
+    }
+}
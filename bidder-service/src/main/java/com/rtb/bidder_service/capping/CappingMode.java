@@ -0,0 +1,24 @@
+package com.rtb.bidder_service.capping;
+
+/**
+ * How frequency-cap counts are kept (rtb.capping.mode).
+ */
+public enum CappingMode {
+
+    /**
+     * No capping: every campaign bids regardless of how often it already has.
+     */
+    OFF,
+
+    /**
+     * Exact counts per campaign and placement (see ExactWindowCounter). Memory grows
+     * with rtb.capping.exact.keys-per-bucket; keys past that are not counted.
+     */
+    EXACT,
+
+    /**
+     * Count-min sketch (see CountMinWindowCounter): fixed memory for any number of
+     * placements, at the price of occasionally capping a campaign slightly early.
+     */
+    SKETCH
+}
@@ -0,0 +1,82 @@
+package com.rtb.bidder_service.capping;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Approximate per-key counts: one count-min sketch per time bucket.
+ *
+ * Each bucket is depth rows of width counters. A key increments one counter per row
+ * (columns from double hashing of the key's two halves), and its count is the smallest
+ * row sum over the live buckets. Summing sketches bucket by bucket gives the sketch of
+ * the whole window, so the usual guarantee holds for the window total: the count is
+ * never below the true count, and it overstates it by more than 2/width of all events in
+ * the window with probability at most 2^-depth. For capping that means a key can be
+ * capped a little early, never late.
+ *
+ * Memory is fixed at 4 bytes x width x depth x (buckets + 1) no matter how many distinct
+ * keys there are, which is what makes it the mode for high-cardinality placements.
+ */
+final class CountMinWindowCounter extends SlidingWindowCounter {
+
+    private final int width;
+    private final int depth;
+    private final int mask;
+
+    // Row r of ring slot b starts at (b * depth + r) * width.
+    private final AtomicIntegerArray cells;
+
+    CountMinWindowCounter(Duration window, int buckets, int width, int depth, long nowMillis) {
+        super(window, buckets);
+        if (width < 2 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("rtb.capping.sketch.width must be a power of two");
+        }
+        if (depth < 1 || depth > 16) {
+            throw new IllegalArgumentException("rtb.capping.sketch.depth must be between 1 and 16");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.mask = width - 1;
+        this.cells = new AtomicIntegerArray((buckets + 1) * depth * width);
+        rotate(nowMillis);
+    }
+
+    @Override
+    int count(long key, long nowMillis) {
+        long live = liveSlots(nowMillis);
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = column(key, row);
+            int sum = 0;
+            for (long slots = live; slots != 0; slots &= slots - 1) {
+                int slot = Long.numberOfTrailingZeros(slots);
+                sum += cells.get((slot * depth + row) * width + column);
+            }
+            estimate = Math.min(estimate, sum);
+        }
+        return estimate;
+    }
+
+    @Override
+    void increment(long key, long nowMillis) {
+        int base = currentSlot(nowMillis) * depth;
+        for (int row = 0; row < depth; row++) {
+            cells.incrementAndGet((base + row) * width + column(key, row));
+        }
+    }
+
+    @Override
+    void clear(int slot) {
+        int start = slot * depth * width;
+        for (int index = start; index < start + depth * width; index++) {
+            cells.set(index, 0);
+        }
+    }
+
+    // Kirsch-Mitzenmacher: h1 + row * h2 is as good as depth independent hashes.
+    private int column(long key, int row) {
+        int h1 = (int) key;
+        int h2 = (int) (key >>> 32) | 1;
+        return (h1 + row * h2) & mask;
+    }
+}
@@ -0,0 +1,109 @@
+package com.rtb.bidder_service.capping;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact per-key counts: one open-addressing table of primitive longs per time bucket.
+ *
+ * All buckets live in two flat arrays (keys and counts, keysPerBucket slots per bucket),
+ * allocated once, so memory is fixed at about 12 bytes x keysPerBucket x (buckets + 1)
+ * whatever the traffic. A key claims a slot with one CAS on first sight in a bucket and
+ * is then counted with an atomic add; tables are emptied as a whole when their bucket is
+ * recycled, so keys that stop appearing cost nothing after one window.
+ *
+ * Probing is bounded. A key that finds no free slot within MAX_PROBES is not counted and
+ * shows up in {@link #overflows()}; past that point the distinct keys per bucket are too
+ * many for this mode and CountMinWindowCounter is the better fit.
+ */
+final class ExactWindowCounter extends SlidingWindowCounter {
+
+    private static final int MAX_PROBES = 16;
+
+    private final int keysPerBucket;
+    private final int mask;
+
+    // Slot s of ring slot b is at index b * keysPerBucket + s. Key 0 marks a free slot.
+    private final AtomicLongArray keys;
+    private final AtomicIntegerArray counts;
+    private final LongAdder overflows = new LongAdder();
+
+    ExactWindowCounter(Duration window, int buckets, int keysPerBucket, long nowMillis) {
+        super(window, buckets);
+        if (keysPerBucket < MAX_PROBES || Integer.bitCount(keysPerBucket) != 1) {
+            throw new IllegalArgumentException("rtb.capping.exact.keys-per-bucket must be a power of two, at least "
+                    + MAX_PROBES);
+        }
+        this.keysPerBucket = keysPerBucket;
+        this.mask = keysPerBucket - 1;
+        this.keys = new AtomicLongArray((buckets + 1) * keysPerBucket);
+        this.counts = new AtomicIntegerArray((buckets + 1) * keysPerBucket);
+        rotate(nowMillis);
+    }
+
+    @Override
+    int count(long key, long nowMillis) {
+        long live = liveSlots(nowMillis);
+        int total = 0;
+        while (live != 0) {
+            int slot = Long.numberOfTrailingZeros(live);
+            live &= live - 1;
+            int index = find(slot * keysPerBucket, key);
+            if (index >= 0) {
+                total += counts.get(index);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    void increment(long key, long nowMillis) {
+        int base = currentSlot(nowMillis) * keysPerBucket;
+        int start = (int) (key ^ (key >>> 32));
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = base + ((start + probe) & mask);
+            long current = keys.get(index);
+            if (current == 0L && keys.compareAndSet(index, 0L, key)) {
+                current = key;
+            } else if (current == 0L) {
+                current = keys.get(index); // lost the race for this slot; it may have been our key
+            }
+            if (current == key) {
+                counts.incrementAndGet(index);
+                return;
+            }
+        }
+        overflows.increment();
+    }
+
+    @Override
+    void clear(int slot) {
+        int base = slot * keysPerBucket;
+        for (int index = base; index < base + keysPerBucket; index++) {
+            counts.set(index, 0);
+            keys.set(index, 0L);
+        }
+    }
+
+    @Override
+    long overflows() {
+        return overflows.sum();
+    }
+
+    private int find(int base, long key) {
+        int start = (int) (key ^ (key >>> 32));
+        for (int probe = 0; probe < MAX_PROBES; probe++) {
+            int index = base + ((start + probe) & mask);
+            long current = keys.get(index);
+            if (current == key) {
+                return index;
+            }
+            if (current == 0L) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,172 @@
+package com.rtb.bidder_service.capping;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.rtb.bidder_service.model.BiddableCampaign;
+import com.rtb.wire.dto.BidRequest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Frequency caps: how many times a campaign may bid on one placement (siteId x
+ * deviceCategoryId) within the sliding rtb.capping.window.
+ *
+ * A campaign's cap is its frequencyCap column, or rtb.capping.default-cap when that is
+ * null; 0 means uncapped. Counts are kept per (campaign, placement) key in a
+ * {@link SlidingWindowCounter}, exact or count-min sketch (rtb.capping.mode).
+ *
+ * The bid path hashes the request's placement once ({@link #placementKey(BidRequest)}),
+ * then per candidate checks {@link #allows} and, for the campaigns that bid, calls
+ * {@link #recordBid}. Both are a fixed number of atomic reads or adds, without locks or
+ * allocation. The check and the add are separate steps, so concurrent requests for the
+ * same placement can overshoot a cap by at most the number of consumer threads.
+ *
+ * Counts are local to each replica. With rtb.sharding.enabled (requests partitioned by
+ * advertiser) every request for a campaign reaches the same replica, so the cap holds
+ * across the deployment. Without sharding each replica counts only the requests it
+ * receives, and with N replicas a campaign can bid up to N x cap per placement; set the
+ * caps per replica accordingly.
+ *
+ * Meters: rtb.capping.checks{result=passed|capped} per check of a capped campaign, and
+ * rtb.capping.overflows for keys the EXACT table had no room for.
+ */
+@Service
+public class FrequencyCapper {
+
+    private final SlidingWindowCounter counter; // null when capping is off
+    private final int defaultCap;
+
+    private final Counter passed;
+    private final Counter capped;
+
+    public FrequencyCapper(MeterRegistry meterRegistry,
+                           @Value("${rtb.capping.mode:EXACT}") CappingMode mode,
+                           @Value("${rtb.capping.window:PT10M}") Duration window,
+                           @Value("${rtb.capping.buckets:10}") int buckets,
+                           @Value("${rtb.capping.default-cap:0}") int defaultCap,
+                           @Value("${rtb.capping.exact.keys-per-bucket:65536}") int keysPerBucket,
+                           @Value("${rtb.capping.sketch.width:16384}") int sketchWidth,
+                           @Value("${rtb.capping.sketch.depth:4}") int sketchDepth) {
+        if (defaultCap < 0) {
+            throw new IllegalArgumentException("rtb.capping.default-cap must not be negative");
+        }
+        long now = System.currentTimeMillis();
+        this.counter = switch (mode) {
+            case OFF -> null;
+            case EXACT -> new ExactWindowCounter(window, buckets, keysPerBucket, now);
+            case SKETCH -> new CountMinWindowCounter(window, buckets, sketchWidth, sketchDepth, now);
+        };
+        this.defaultCap = defaultCap;
+
+        this.passed = Counter.builder("rtb.capping.checks")
+            .description("Frequency-cap checks of capped campaigns, by result")
+            .tag("result", "passed")
+            .register(meterRegistry);
+        this.capped = Counter.builder("rtb.capping.checks")
+            .description("Frequency-cap checks of capped campaigns, by result")
+            .tag("result", "capped")
+            .register(meterRegistry);
+        if (counter != null) {
+            FunctionCounter.builder("rtb.capping.overflows", counter, SlidingWindowCounter::overflows)
+                .description("Bids not counted because the exact capping table was full")
+                .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Capping switched off, for selectors built outside the running service (benchmarks, tests).
+     */
+    public static FrequencyCapper off() {
+        return new FrequencyCapper(new SimpleMeterRegistry(), CappingMode.OFF, Duration.ofMinutes(10), 10, 0,
+                65536, 16384, 4);
+    }
+
+    /**
+     * Hash of the request's placement, computed once per request and passed to
+     * {@link #allows} and {@link #recordBid} for every candidate.
+     */
+    public long placementKey(BidRequest request) {
+        if (counter == null) {
+            return 0L;
+        }
+        // 64-bit FNV-1a over siteId, a separator and deviceCategoryId.
+        long h = 0xcbf29ce484222325L;
+        h = fnv(h, request.siteId());
+        h = (h ^ 0x1f) * 0x100000001b3L;
+        return fnv(h, request.deviceCategoryId());
+    }
+
+    /**
+     * False if the campaign has already bid its cap on this placement within the window.
+     */
+    public boolean allows(BiddableCampaign campaign, long placement) {
+        int cap = capOf(campaign);
+        if (cap == 0) {
+            return true;
+        }
+        if (counter.count(key(campaign, placement), System.currentTimeMillis()) >= cap) {
+            capped.increment();
+            return false;
+        }
+        passed.increment();
+        return true;
+    }
+
+    /**
+     * Counts one bid by the campaign on this placement.
+     */
+    public void recordBid(BiddableCampaign campaign, long placement) {
+        if (capOf(campaign) != 0) {
+            counter.increment(key(campaign, placement), System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Clears each time bucket before it comes into use. Must run more often than once per
+     * bucket (rtb.capping.window / rtb.capping.buckets).
+     */
+    @Scheduled(fixedRateString = "${rtb.capping.tick-ms:1000}")
+    public void rotate() {
+        if (counter != null) {
+            counter.rotate(System.currentTimeMillis());
+        }
+    }
+
+    private int capOf(BiddableCampaign campaign) {
+        if (counter == null) {
+            return 0;
+        }
+        return campaign.frequencyCap() >= 0 ? campaign.frequencyCap() : defaultCap;
+    }
+
+    /**
+     * The counter key for a campaign on a placement: both mixed through the MurmurHash3
+     * finaliser so every bit of the key depends on both. Never 0, which the counters reserve.
+     */
+    static long key(BiddableCampaign campaign, long placement) {
+        long h = placement ^ (campaign.id() * 0x9e3779b97f4a7c15L);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h != 0 ? h : 1L;
+    }
+
+    private static long fnv(long h, String value) {
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+        }
+        return h;
+    }
+}
@@ -0,0 +1,117 @@
+package com.rtb.bidder_service.capping;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts events per 64-bit key over a sliding time window.
+ *
+ * The window is split into rtb.capping.buckets time buckets held in a ring with one
+ * spare slot. Writes go to the bucket of the current instant; a count is the sum over
+ * the buckets still inside the window, so the window slides one bucket at a time and
+ * covers between (buckets - 1) and buckets bucket lengths of history.
+ *
+ * Buckets are never cleared on the bid path. {@link #rotate(long)} runs on a scheduler
+ * tick shorter than a bucket and clears the spare slot before time reaches it, so by the
+ * time writers move into a bucket it is already empty. Every ring slot is tagged with the
+ * bucket (epoch) it holds, and reads skip slots whose tag is not one of the window's
+ * epochs: if the tick ever stalls for longer than a bucket, counts for that stretch are
+ * lost (capping is briefly lenient) but stale counts from an old window are never used.
+ *
+ * Keys are expected to be well mixed already (see FrequencyCapper); 0 is reserved.
+ * Every operation is a handful of atomic reads or adds, with no locks.
+ */
+abstract class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final int ring;
+
+    // Epoch (nowMillis / bucketMillis) each ring slot currently holds.
+    private final AtomicLongArray epochs;
+
+    SlidingWindowCounter(Duration window, int buckets) {
+        if (buckets < 1 || buckets > 63) {
+            throw new IllegalArgumentException("rtb.capping.buckets must be between 1 and 63");
+        }
+        if (window.toMillis() < buckets) {
+            throw new IllegalArgumentException("rtb.capping.window must be at least one millisecond per bucket");
+        }
+        this.bucketMillis = window.toMillis() / buckets;
+        this.buckets = buckets;
+        this.ring = buckets + 1;
+        this.epochs = new AtomicLongArray(ring);
+        for (int slot = 0; slot < ring; slot++) {
+            epochs.set(slot, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Events recorded for key within the window ending at nowMillis.
+     */
+    abstract int count(long key, long nowMillis);
+
+    /**
+     * Records one event for key at nowMillis.
+     */
+    abstract void increment(long key, long nowMillis);
+
+    // Empties one ring slot. Only called by rotate(), for a slot no writer is using.
+    abstract void clear(int slot);
+
+    /**
+     * Keys that could not be recorded because their bucket was full. Always 0 for
+     * structures that cannot fill up.
+     */
+    long overflows() {
+        return 0L;
+    }
+
+    /**
+     * Makes sure the current bucket and the next one are cleared and tagged. Idempotent;
+     * call it more often than once per bucket length.
+     */
+    final void rotate(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        prepare(epoch);
+        prepare(epoch + 1);
+    }
+
+    final long bucketMillis() {
+        return bucketMillis;
+    }
+
+    /**
+     * Ring slot that writes at nowMillis go to.
+     */
+    final int currentSlot(long nowMillis) {
+        return slot(nowMillis / bucketMillis);
+    }
+
+    /**
+     * Bit mask of the ring slots that hold a bucket inside the window ending at nowMillis.
+     */
+    final long liveSlots(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long live = 0L;
+        for (int i = 0; i < buckets; i++) {
+            int slot = slot(epoch - i);
+            if (epochs.get(slot) == epoch - i) {
+                live |= 1L << slot;
+            }
+        }
+        return live;
+    }
+
+    private void prepare(long epoch) {
+        int slot = slot(epoch);
+        if (epochs.get(slot) != epoch) {
+            clear(slot);
+            epochs.set(slot, epoch);
+        }
+    }
+
+    private int slot(long epoch) {
+        return (int) Math.floorMod(epoch, (long) ring);
+    }
+}
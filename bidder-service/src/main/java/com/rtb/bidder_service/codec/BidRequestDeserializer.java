@@ -0,0 +1,67 @@
+package com.rtb.bidder_service.codec;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rtb.bidder_service.metrics.BidMetrics;
+import com.rtb.bidder_service.metrics.BidMetrics.Stage;
+import com.rtb.wire.BidRequestCodec;
+import com.rtb.wire.WireFormat;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Reads bid requests in either wire format.
+ *
+ * Binary payloads (first byte {@link WireFormat#MAGIC}) are decoded straight from the
+ * consumer's byte array; anything else is treated as the JSON the simulator has always
+ * sent. This lets producers switch formats one at a time during a rolling migration.
+ *
+ * When the consumer config carries a {@link BidMetrics} (under BidMetrics.CONSUMER_CONFIG),
+ * decoding is timed as the deserialize stage.
+ */
+public class BidRequestDeserializer implements Deserializer<BidRequest> {
+
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private BidMetrics metrics;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        if (configs.get(BidMetrics.CONSUMER_CONFIG) instanceof BidMetrics bidMetrics) {
+            this.metrics = bidMetrics;
+        }
+    }
+
+    @Override
+    public BidRequest deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (metrics == null) {
+            return read(topic, data);
+        }
+        long start = metrics.stageStart();
+        BidRequest request = read(topic, data);
+        metrics.recordStage(Stage.DESERIALIZE, start);
+        return request;
+    }
+
+    private static BidRequest read(String topic, byte[] data) {
+        if (WireFormat.isBinary(data)) {
+            return BidRequestCodec.decode(data);
+        }
+        try {
+            return JSON.readValue(data, BidRequest.class);
+        } catch (IOException e) {
+            throw new SerializationException("Cannot read JSON bid request from topic " + topic, e);
+        }
+    }
+}
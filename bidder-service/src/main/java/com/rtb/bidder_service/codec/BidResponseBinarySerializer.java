@@ -0,0 +1,21 @@
+package com.rtb.bidder_service.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.rtb.wire.BidResponseCodec;
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * Writes bid responses in the binary wire format. Unlike Spring's JsonSerializer it adds
+ * no type-mapping header; consumers recognise the format from the first byte.
+ *
+ * Select it with:
+ * spring.kafka.producer.value-serializer=com.rtb.bidder_service.codec.BidResponseBinarySerializer
+ */
+public class BidResponseBinarySerializer implements Serializer<BidResponse> {
+
+    @Override
+    public byte[] serialize(String topic, BidResponse data) {
+        return data == null ? null : BidResponseCodec.encode(data);
+    }
+}
@@ -0,0 +1,38 @@
+package com.rtb.bidder_service.codec;
+
+import java.io.IOException;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rtb.wire.WinNoticeCodec;
+import com.rtb.wire.WireFormat;
+import com.rtb.wire.dto.WinNotice;
+
+/**
+ * Reads win notices from the auction-service, binary (its default) or JSON.
+ */
+public class WinNoticeDeserializer implements Deserializer<WinNotice> {
+
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Override
+    public WinNotice deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (WireFormat.isBinary(data)) {
+            return WinNoticeCodec.decode(data);
+        }
+        try {
+            return JSON.readValue(data, WinNotice.class);
+        } catch (IOException e) {
+            throw new SerializationException("Cannot read JSON win notice from topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.rtb.bidder_service.config;
+
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
+
+import com.rtb.bidder_service.metrics.BidMetrics;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    /**
+     * Hands the BidMetrics bean to every consumer Boot creates, so BidRequestDeserializer
+     * (which Kafka instantiates from spring.kafka.consumer.value-deserializer) can time
+     * itself. Deserializers that do not look for the key, like the campaign update
+     * listener's StringDeserializer, just ignore it.
+     */
+    @Bean
+    public DefaultKafkaConsumerFactoryCustomizer bidMetricsConsumerCustomizer(BidMetrics bidMetrics) {
+        return consumerFactory -> consumerFactory.updateConfigs(Map.of(BidMetrics.CONSUMER_CONFIG, bidMetrics));
+    }
+
+    /**
+     * Container factory for rtb.listener.mode=batch.
+     *
+     * It starts from everything Spring Boot already configured from spring.kafka.*
+     * (bootstrap servers, deserializer, group id...) and then layers the batch knobs on top:
+     * - rtb.batch.max-size      -> max.poll.records (records handed to one listener call)
+     * - rtb.batch.max-wait-ms   -> fetch.max.wait.ms (how long the broker may hold a fetch
+     *                              to fill rtb.batch.min-bytes; caps the latency a batch adds)
+     * - rtb.batch.ack-mode      -> when offsets are committed (BATCH = once per poll)
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rtb.listener.mode", havingValue = "batch")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> batchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${rtb.batch.max-size:500}") int maxSize,
+            @Value("${rtb.batch.max-wait-ms:5}") int maxWaitMs,
+            @Value("${rtb.batch.min-bytes:1}") int minBytes,
+            @Value("${rtb.batch.ack-mode:BATCH}") AckMode ackMode) {
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxSize));
+        overrides.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, String.valueOf(maxWaitMs));
+        overrides.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, String.valueOf(minBytes));
+        factory.getContainerProperties().setKafkaConsumerProperties(overrides);
+        factory.getContainerProperties().setAckMode(ackMode);
+        return factory;
+    }
+
+    /**
+     * Container factory for rtb.listener.mode=parallel (see ParallelBidderKafkaListener).
+     *
+     * A batch listener like the one above: the listener fans each poll out to its lanes
+     * and returns once all of it is done, so the default BATCH ack mode commits exactly
+     * the records that have finished. max.poll.records bounds how much work one
+     * consumer thread has outstanding, and so how much is redelivered after a crash.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "rtb.listener.mode", havingValue = "parallel")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> parallelListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            @Value("${rtb.parallel.max-poll-records:500}") int maxPollRecords) {
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.setBatchListener(true);
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        factory.getContainerProperties().setKafkaConsumerProperties(overrides);
+        factory.getContainerProperties().setAckMode(AckMode.BATCH);
+        return factory;
+    }
+}
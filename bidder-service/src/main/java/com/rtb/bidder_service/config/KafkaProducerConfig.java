@@ -0,0 +1,44 @@
+package com.rtb.bidder_service.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.rtb.publish.ProducerProfile;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    /**
+     * Tunes the producer Boot creates from spring.kafka.producer.*:
+     * - rtb.publisher.profile fills in linger.ms, batch.size and compression.type
+     *   (LATENCY or THROUGHPUT, see ProducerProfile) where they are not set explicitly.
+     * - rtb.publisher.idempotent turns on idempotence, with acks=all unless acks is set.
+     *   Set explicitly, so a conflicting override (acks=1, say) fails at startup instead
+     *   of the client quietly falling back to a producer that can duplicate bids on retry.
+     */
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer tunedProducerCustomizer(
+            @Value("${rtb.publisher.profile:LATENCY}") ProducerProfile profile,
+            @Value("${rtb.publisher.idempotent:true}") boolean idempotent) {
+        return producerFactory -> {
+            Map<String, Object> configured = producerFactory.getConfigurationProperties();
+            Map<String, Object> updates = new HashMap<>();
+            profile.settings().forEach((key, value) -> {
+                if (!configured.containsKey(key)) {
+                    updates.put(key, value);
+                }
+            });
+            updates.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotent);
+            if (idempotent && !configured.containsKey(ProducerConfig.ACKS_CONFIG)) {
+                updates.put(ProducerConfig.ACKS_CONFIG, "all");
+            }
+            producerFactory.updateConfigs(updates);
+        };
+    }
+}
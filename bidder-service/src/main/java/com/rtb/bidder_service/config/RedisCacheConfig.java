@@ -7,6 +7,8 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
 
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
 @Configuration
 public class RedisCacheConfig {
 
@@ -14,7 +16,9 @@ public class RedisCacheConfig {
     public RedisCacheConfiguration cacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
                 .disableCachingNullValues() // Optional: Good practice
-                .serializeValuesWith(SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                // Campaign carries Instant flight dates, which plain Jackson refuses to write.
+                .serializeValuesWith(SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()
+                        .configure(mapper -> mapper.registerModule(new JavaTimeModule()))));
     }
 
     @Bean
@@ -23,4 +27,4 @@ public class RedisCacheConfig {
         return (builder) -> builder
                 .withCacheConfiguration("campaigns", cacheConfiguration());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.rtb.bidder_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.rtb.bidder_service.service.TieBreaker;
+import com.rtb.bidder_service.service.TieBreakers;
+
+@Configuration
+public class SelectionConfig {
+
+    // Declare your own TieBreaker bean to plug in a custom strategy.
+    @Bean
+    @ConditionalOnMissingBean
+    public TieBreaker tieBreaker(@Value("${rtb.selection.tie-breaker:LOWEST_ID}") TieBreakers tieBreaker) {
+        return tieBreaker;
+    }
+}
@@ -0,0 +1,107 @@
+package com.rtb.bidder_service.decisionlog;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Structured, sampled, asynchronous log of bid decisions.
+ *
+ * This replaces per-message log.info on the bid path. A consumer thread decides whether
+ * to keep a decision (rtb.decision-log.sample.*, per outcome), copies it into a
+ * pre-allocated slot of a lock-free ring buffer and returns; formatting and file I/O
+ * happen on the writer thread. If the writer falls behind and the buffer is full, the
+ * decision is dropped and counted rather than making the consumer wait.
+ *
+ * Metrics: rtb.decision.log.records{result=written|dropped} and
+ * rtb.decision.log.buffer.fill, the share of the buffer waiting for the writer (0.0 - 1.0).
+ * A fill that stays near 1 means drops are coming: raise the buffer size or lower the
+ * sample rates.
+ */
+@Component
+public class DecisionLog implements DisposableBean {
+
+    private final boolean enabled;
+    // Sample rate per outcome, indexed by ordinal.
+    private final double[] rates = new double[DecisionOutcome.values().length];
+
+    private final DecisionRingBuffer buffer;
+    private final DecisionLogWriter writer;
+    private final Thread writerThread;
+    private final Counter dropped;
+
+    public DecisionLog(MeterRegistry meterRegistry,
+                       @Value("${rtb.decision-log.enabled:true}") boolean enabled,
+                       @Value("${rtb.decision-log.path:decision-logs/decisions.jsonl}") Path path,
+                       @Value("${rtb.decision-log.buffer-size:65536}") int bufferSize,
+                       @Value("${rtb.decision-log.max-file-bytes:104857600}") long maxFileBytes,
+                       @Value("${rtb.decision-log.max-files:5}") int maxFiles,
+                       @Value("${rtb.decision-log.sample.bid:0.01}") double bidRate,
+                       @Value("${rtb.decision-log.sample.no-bid:0.001}") double noBidRate,
+                       @Value("${rtb.decision-log.sample.error:1.0}") double errorRate,
+                       @Value("${rtb.decision-log.sample.expired:0.001}") double expiredRate,
+                       @Value("${rtb.decision-log.sample.shed:0.001}") double shedRate) {
+        this.enabled = enabled;
+        rates[DecisionOutcome.BID.ordinal()] = bidRate;
+        rates[DecisionOutcome.NO_BID.ordinal()] = noBidRate;
+        rates[DecisionOutcome.ERROR.ordinal()] = errorRate;
+        rates[DecisionOutcome.EXPIRED.ordinal()] = expiredRate;
+        rates[DecisionOutcome.SHED.ordinal()] = shedRate;
+
+        this.dropped = Counter.builder("rtb.decision.log.records").tag("result", "dropped")
+            .description("Sampled decisions lost because the decision log buffer was full")
+            .register(meterRegistry);
+        Counter written = Counter.builder("rtb.decision.log.records").tag("result", "written")
+            .description("Sampled decisions written to the decision log")
+            .register(meterRegistry);
+
+        if (!enabled) {
+            this.buffer = null;
+            this.writer = null;
+            this.writerThread = null;
+            return;
+        }
+        this.buffer = new DecisionRingBuffer(bufferSize);
+        Gauge.builder("rtb.decision.log.buffer.fill", buffer, b -> (double) b.size() / b.capacity())
+            .description("Share of the decision log buffer holding records not yet written")
+            .register(meterRegistry);
+        this.writer = new DecisionLogWriter(buffer, path, maxFileBytes, maxFiles, written);
+        // A platform thread: it spins on the buffer for the life of the app and must not
+        // pin a carrier thread that virtual-thread consumers need.
+        this.writerThread = Thread.ofPlatform().name("decision-log-writer").daemon(true).start(writer);
+    }
+
+    /**
+     * Offers one decision to the log if its outcome is sampled. Never blocks.
+     * campaignId is the winning campaign for BID and null otherwise.
+     */
+    public void record(String impressionId, String advertiserId, String campaignId,
+                       DecisionOutcome outcome, long latencyNanos) {
+        if (!enabled || !sampled(outcome)) {
+            return;
+        }
+        if (!buffer.offer(System.currentTimeMillis(), impressionId, advertiserId, campaignId, outcome, latencyNanos)) {
+            dropped.increment();
+        }
+    }
+
+    private boolean sampled(DecisionOutcome outcome) {
+        double rate = rates[outcome.ordinal()];
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+            writerThread.join(5_000);
+        }
+    }
+}
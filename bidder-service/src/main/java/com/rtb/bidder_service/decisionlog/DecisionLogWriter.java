@@ -0,0 +1,159 @@
+package com.rtb.bidder_service.decisionlog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * The single consumer of the {@link DecisionRingBuffer}: drains it on its own thread and
+ * appends one JSON line per decision, e.g.
+ *   {"ts":1730000000000,"imp":"5f1c...","adv":"79","campaign":"17","outcome":"BID","latencyUs":42}
+ *
+ * The file rotates once it passes maxFileBytes: decisions.jsonl becomes decisions.jsonl.1,
+ * .1 becomes .2 and so on, and the oldest beyond maxFiles is deleted. The writer flushes
+ * whenever the buffer runs dry, so a quiet bidder still has its recent decisions on disk.
+ */
+final class DecisionLogWriter implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(DecisionLogWriter.class);
+    private static final int DRAIN_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final DecisionRingBuffer buffer;
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Counter written;
+
+    private final StringBuilder line = new StringBuilder(256);
+    private BufferedWriter out;
+    private long fileBytes;
+    private volatile boolean running = true;
+
+    DecisionLogWriter(DecisionRingBuffer buffer, Path file, long maxFileBytes, int maxFiles, Counter written) {
+        this.buffer = buffer;
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.written = written;
+    }
+
+    @Override
+    public void run() {
+        try {
+            open();
+            while (running) {
+                if (buffer.drain(this::write, DRAIN_BATCH) == 0) {
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            // Shutting down: write whatever is already in the buffer.
+            while (buffer.drain(this::write, DRAIN_BATCH) > 0) {
+                // keep draining
+            }
+            out.flush();
+        } catch (IOException | RuntimeException e) {
+            log.error("Decision log writer stopped; further decisions will be dropped", e);
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    private void write(DecisionRecord record) {
+        line.setLength(0);
+        line.append("{\"ts\":").append(record.timestampMillis);
+        appendString("imp", record.impressionId);
+        appendString("adv", record.advertiserId);
+        appendString("campaign", record.campaignId);
+        line.append(",\"outcome\":\"").append(record.outcome.name()).append('"');
+        line.append(",\"latencyUs\":").append(record.latencyNanos / 1_000).append("}\n");
+        try {
+            out.append(line);
+            // Ids are ASCII in practice; chars are a close enough measure for rotation.
+            fileBytes += line.length();
+            if (fileBytes >= maxFileBytes) {
+                rotate();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write decision log " + file, e);
+        }
+        written.increment();
+    }
+
+    private void appendString(String name, String value) {
+        line.append(",\"").append(name).append("\":");
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+    private void open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path from = rotated(i);
+            if (Files.exists(from)) {
+                Files.move(from, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        open();
+    }
+
+    private Path rotated(int generation) {
+        return file.resolveSibling(file.getFileName() + "." + generation);
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Could not close decision log {}", file, e);
+            }
+        }
+    }
+}
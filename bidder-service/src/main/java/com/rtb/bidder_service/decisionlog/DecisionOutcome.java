@@ -0,0 +1,12 @@
+package com.rtb.bidder_service.decisionlog;
+
+/**
+ * What the bidder did with one bid request.
+ */
+public enum DecisionOutcome {
+    BID,
+    NO_BID,
+    ERROR,
+    EXPIRED, // past its deadline on arrival, dropped without a lookup
+    SHED     // dropped to keep the rest within their deadline (see DeadlineGuard)
+}
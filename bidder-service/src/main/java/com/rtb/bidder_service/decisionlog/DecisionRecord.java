@@ -0,0 +1,32 @@
+package com.rtb.bidder_service.decisionlog;
+
+/**
+ * One slot of the {@link DecisionRingBuffer}. Mutable and reused; only the producer that
+ * claimed the slot writes it, and only the writer thread reads it once published.
+ */
+final class DecisionRecord {
+
+    long timestampMillis;
+    String impressionId;
+    String advertiserId;
+    String campaignId; // null unless outcome is BID
+    DecisionOutcome outcome;
+    long latencyNanos;
+
+    void set(long timestampMillis, String impressionId, String advertiserId, String campaignId,
+             DecisionOutcome outcome, long latencyNanos) {
+        this.timestampMillis = timestampMillis;
+        this.impressionId = impressionId;
+        this.advertiserId = advertiserId;
+        this.campaignId = campaignId;
+        this.outcome = outcome;
+        this.latencyNanos = latencyNanos;
+    }
+
+    // Drop the String references so a drained slot does not keep ids alive for a whole lap.
+    void clear() {
+        impressionId = null;
+        advertiserId = null;
+        campaignId = null;
+    }
+}
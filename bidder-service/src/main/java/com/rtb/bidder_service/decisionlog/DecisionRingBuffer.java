@@ -0,0 +1,101 @@
+package com.rtb.bidder_service.decisionlog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free, multi-producer single-consumer ring of decision records.
+ *
+ * Every slot is allocated up front and reused, so logging a decision copies a few
+ * references and longs into an existing object and allocates nothing. This is Dmitry
+ * Vyukov's bounded queue: each slot has a sequence number that says whose turn it is.
+ * - A producer claims position p with one CAS on the tail, but only if slot p's sequence
+ *   is p (free). It fills the slot and publishes it by setting the sequence to p + 1.
+ * - The consumer reads slot p once its sequence is p + 1, then frees it for the next lap
+ *   by setting the sequence to p + capacity.
+ * A producer that finds the slot still occupied (the consumer is a full lap behind)
+ * gives up instead of waiting: {@link #offer} returns false and the record is dropped.
+ */
+final class DecisionRingBuffer {
+
+    private final DecisionRecord[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+
+    // Written by the consumer thread only; volatile so size() can be read from anywhere.
+    private volatile long head;
+
+    DecisionRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Decision log buffer capacity must be a power of two, was " + capacity);
+        }
+        this.slots = new DecisionRecord[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new DecisionRecord();
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Copies one decision into the next free slot. Never blocks; false means the buffer was full.
+     */
+    boolean offer(long timestampMillis, String impressionId, String advertiserId, String campaignId,
+                  DecisionOutcome outcome, long latencyNanos) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long sequence = sequences.getAcquire(index);
+            long lag = sequence - position;
+            if (lag == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index].set(timestampMillis, impressionId, advertiserId, campaignId, outcome, latencyNanos);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (lag < 0) {
+                return false;
+            } else {
+                // Another producer took this position first; try the next one.
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hands up to max published records to the sink, oldest first, and returns how many.
+     * The record passed to the sink is only valid during the call. Consumer thread only.
+     */
+    int drain(Consumer<DecisionRecord> sink, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.getAcquire(index) != head + 1) {
+                break;
+            }
+            DecisionRecord record = slots[index];
+            sink.accept(record);
+            record.clear();
+            sequences.setRelease(index, head + slots.length);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Records claimed but not yet drained. A racy snapshot, for metrics only.
+     */
+    int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0L, Math.min(size, slots.length));
+    }
+}
@@ -0,0 +1,179 @@
+package com.rtb.bidder_service.metrics;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rtb.bidder_service.decisionlog.DecisionOutcome;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Hot-path meters for the bid path, cheap enough to leave on in production.
+ *
+ * Every meter is registered up front (or once per advertiser, on first sight), so the bid
+ * path only ever does a map lookup and an atomic add; it never builds tags. Meters:
+ *
+ * - rtb.bid.stage{stage=deserialize|targeting|selection|send}: time spent in each stage
+ *   of one request.
+ * - rtb.bid.campaign.lookup{tier=index}: resolving the advertiser's campaigns. The bid
+ *   path only reads the in-memory index, which is rebuilt from Postgres off the bid path.
+ * - rtb.bid.decisions{outcome, advertiser}: one counter per outcome (bid, no_bid, error,
+ *   and expired or shed for requests DeadlineGuard dropped) and advertiser. Only
+ *   the first rtb.metrics.max-advertiser-tags advertisers get their own tag; the rest are
+ *   counted under advertiser="other" so a noisy feed cannot blow up the series count.
+ * - rtb.bid.e2e.latency: from the simulator's createdAtMillis stamp to the bid being
+ *   handed to the producer. Wall-clock across hosts, so only as good as NTP.
+ *
+ * The timers are sampled. A clock read plus a histogram update costs about as much as a
+ * whole bid decision, so only one request in rtb.metrics.stages.sample-every is timed
+ * (0 turns timing off). That is plenty for percentiles at our volume. The outcome
+ * counters are never sampled.
+ *
+ * Consumer lag per partition is not recorded here: Spring Boot already binds the Kafka
+ * client metrics (kafka.consumer.fetch.manager.records.lag{topic,partition}).
+ */
+@Component
+public class BidMetrics {
+
+    /**
+     * Consumer config key under which this instance is handed to BidRequestDeserializer
+     * (see KafkaConsumerConfig), since Kafka, not Spring, creates the deserializer.
+     */
+    public static final String CONSUMER_CONFIG = "rtb.metrics.bid-metrics";
+
+    public enum Stage {
+        DESERIALIZE, TARGETING, SELECTION, SEND
+    }
+
+    // Returned by stageStart() for requests that are not sampled.
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    static final String OTHER_ADVERTISERS = "other";
+    static final String UNKNOWN_ADVERTISER = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean stagesEnabled;
+    private final int sampleMask;
+    private final int maxAdvertiserTags;
+
+    // Indexed by Stage.ordinal().
+    private final Timer[] stages = new Timer[Stage.values().length];
+    private final Timer indexLookup;
+    private final Timer endToEnd;
+
+    // Counters per advertiser, indexed by DecisionOutcome.ordinal().
+    private final ConcurrentHashMap<String, Counter[]> decisions = new ConcurrentHashMap<>();
+    private final Counter[] otherDecisions;
+
+    public BidMetrics(MeterRegistry meterRegistry,
+                      @Value("${rtb.metrics.stages.sample-every:64}") int sampleEvery,
+                      @Value("${rtb.metrics.max-advertiser-tags:200}") int maxAdvertiserTags) {
+        if (sampleEvery < 0 || Integer.bitCount(sampleEvery) > 1) {
+            throw new IllegalArgumentException("rtb.metrics.stages.sample-every must be 0 or a power of two");
+        }
+        this.meterRegistry = meterRegistry;
+        this.stagesEnabled = sampleEvery > 0;
+        this.sampleMask = sampleEvery - 1;
+        this.maxAdvertiserTags = maxAdvertiserTags;
+
+        for (Stage stage : Stage.values()) {
+            stages[stage.ordinal()] = Timer.builder("rtb.bid.stage")
+                .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                .description("Time spent in one stage of handling a bid request (sampled)")
+                .publishPercentileHistogram(true)
+                .register(meterRegistry);
+        }
+        this.indexLookup = Timer.builder("rtb.bid.campaign.lookup")
+            .tag("tier", "index")
+            .description("Time to resolve an advertiser's campaigns for a bid request (sampled)")
+            .publishPercentileHistogram(true)
+            .register(meterRegistry);
+        this.endToEnd = Timer.builder("rtb.bid.e2e.latency")
+            .description("From the simulator creating a request to its bids being sent (sampled)")
+            .publishPercentileHistogram(true)
+            .register(meterRegistry);
+        this.otherDecisions = registerDecisions(OTHER_ADVERTISERS);
+    }
+
+    /**
+     * Start of a timed stage: a nanoTime reading for a sampled request, else NOT_SAMPLED.
+     */
+    public long stageStart() {
+        return sampled() ? System.nanoTime() : NOT_SAMPLED;
+    }
+
+    /**
+     * Records the stage that began at start and returns the current time, so consecutive
+     * stages of a sampled request share one clock read. A NOT_SAMPLED start is passed on.
+     */
+    public long recordStage(Stage stage, long start) {
+        return record(stages[stage.ordinal()], start);
+    }
+
+    public long recordLookup(long start) {
+        return record(indexLookup, start);
+    }
+
+    public void recordDecision(String advertiserId, DecisionOutcome outcome) {
+        countersFor(advertiserId)[outcome.ordinal()].increment();
+    }
+
+    /**
+     * Records end-to-end latency for a request stamped by the producer. Unstamped
+     * requests (0) and negative gaps from clock skew are skipped.
+     */
+    public void recordEndToEnd(long createdAtMillis) {
+        if (createdAtMillis <= 0 || !sampled()) {
+            return;
+        }
+        long elapsed = System.currentTimeMillis() - createdAtMillis;
+        if (elapsed >= 0) {
+            endToEnd.record(elapsed, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean sampled() {
+        return stagesEnabled && (ThreadLocalRandom.current().nextInt() & sampleMask) == 0;
+    }
+
+    private static long record(Timer timer, long start) {
+        if (start == NOT_SAMPLED) {
+            return NOT_SAMPLED;
+        }
+        long now = System.nanoTime();
+        timer.record(now - start, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    private Counter[] countersFor(String advertiserId) {
+        String key = advertiserId != null ? advertiserId : UNKNOWN_ADVERTISER;
+        Counter[] counters = decisions.get(key);
+        if (counters != null) {
+            return counters;
+        }
+        // The size check can race past the cap by a few entries; the bound just has to hold.
+        if (decisions.size() >= maxAdvertiserTags) {
+            return otherDecisions;
+        }
+        return decisions.computeIfAbsent(key, this::registerDecisions);
+    }
+
+    private Counter[] registerDecisions(String advertiser) {
+        Counter[] counters = new Counter[DecisionOutcome.values().length];
+        for (DecisionOutcome outcome : DecisionOutcome.values()) {
+            counters[outcome.ordinal()] = Counter.builder("rtb.bid.decisions")
+                .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                .tag("advertiser", advertiser)
+                .description("Bid requests handled, by outcome and advertiser")
+                .register(meterRegistry);
+        }
+        return counters;
+    }
+}
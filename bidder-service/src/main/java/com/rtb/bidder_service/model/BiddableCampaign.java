@@ -0,0 +1,51 @@
+package com.rtb.bidder_service.model;
+
+import com.rtb.bidder_service.budget.CampaignBudget;
+
+/**
+ * The immutable, bid-path view of a {@link Campaign}.
+ *
+ * Built once per index refresh, so everything the bid path needs is pre-computed:
+ * money is in long micros (see {@link Money}) and the campaign id is already a String,
+ * so emitting a bid allocates nothing but the response itself. Targeting columns are
+ * parsed into {@link TargetingRule}s, and the live {@link CampaignBudget} is attached
+ * directly, so budget checks need no lookup.
+ *
+ * frequencyCap is the campaign's own cap per placement, or -1 to use the configured
+ * default (see FrequencyCapper).
+ */
+public record BiddableCampaign(
+    long id,
+    String campaignId,
+    String advertiserId,
+    long bidPriceMicros,
+    long impressionCostMicros, // what one won impression costs at bidPriceMicros CPM
+    long budgetMicros,
+    TargetingRule targetingGeo,
+    TargetingRule targetingOs,
+    TargetingRule targetingSite,
+    TargetingRule targetingAdType,
+    TargetingRule targetingDeviceCategory,
+    int frequencyCap,
+    CampaignBudget budget
+) {
+
+    public static BiddableCampaign from(Campaign campaign, CampaignBudget budget) {
+        long bidPriceMicros = Money.toMicros(campaign.getBidPrice());
+        return new BiddableCampaign(
+            campaign.getId() != null ? campaign.getId() : 0L,
+            String.valueOf(campaign.getId()),
+            campaign.getAdvertiserId(),
+            bidPriceMicros,
+            Money.cpmToImpressionMicros(bidPriceMicros),
+            campaign.getBudget() != null ? Money.toMicros(campaign.getBudget()) : 0L, // no budget, no spend
+            TargetingRule.parse(campaign.getTargetingGeo()),
+            TargetingRule.parse(campaign.getTargetingOs()),
+            TargetingRule.parse(campaign.getTargetingSite()),
+            TargetingRule.parse(campaign.getTargetingAdType()),
+            TargetingRule.parse(campaign.getTargetingDeviceCategory()),
+            campaign.getFrequencyCap() != null ? campaign.getFrequencyCap() : -1,
+            budget
+        );
+    }
+}
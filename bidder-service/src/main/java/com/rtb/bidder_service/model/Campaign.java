@@ -1,14 +1,24 @@
 package com.rtb.bidder_service.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+
 import jakarta.persistence.Entity; // Ensure you have these imports
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
+
+// Money stays BigDecimal here, at the JPA boundary. The bid path works on
+// BiddableCampaign, which carries the same values as long micros (see Money).
 @Entity
-@Table(name = "campaigns")
+@Table(name = "campaigns", indexes = @Index(name = "idx_campaigns_updated_at", columnList = "updatedAt"))
 public class Campaign {
 
     @Id
@@ -17,10 +27,40 @@ public class Campaign {
 
     private String advertiserId;
     private BigDecimal budget;
+    // Targeting columns: comma-separated exact values, "!" excludes (see TargetingRule).
     private String targetingGeo;
     private String targetingOs;
+    private String targetingSite;
+    private String targetingAdType;
+    private String targetingDeviceCategory;
 
     private BigDecimal bidPrice;
+
+    // Total spend reconciled from every bidder replica (see BudgetReconciler).
+    private BigDecimal spent;
+
+    // Flight window and pacing. A null start means "already running";
+    // a null end means the campaign runs until its budget is gone.
+    private Instant flightStart;
+    private Instant flightEnd;
+
+    @Enumerated(EnumType.STRING)
+    private PacingMode pacing;
+
+    // Most bids per placement (site x device category) within rtb.capping.window.
+    // Null means rtb.capping.default-cap, 0 means uncapped (see FrequencyCapper).
+    private Integer frequencyCap;
+
+    // Change tracking for the bidders' incremental index updates (see CampaignChangePoller).
+    // A deactivated campaign is kept as a row so the change is visible; null means active.
+    private Boolean active;
+    // Set by the database (current_timestamp) on every insert or update through JPA, so the
+    // writers' clocks never matter. The spend reconciler's bulk update leaves it alone on
+    // purpose: spend is not a targeting change. Writers outside JPA must set it to
+    // current_timestamp themselves (see CampaignSeeder).
+    @CurrentTimestamp(source = SourceType.DB)
+    private Instant updatedAt;
+
     public Campaign() {}
     public Campaign(String advertiserId, BigDecimal budget, String targetingGeo, String targetingOs, BigDecimal bidPrice) {
         this.advertiserId = advertiserId;
@@ -48,6 +88,24 @@ public class Campaign {
     public String getTargetingOs() {
         return targetingOs;
     }
+
+    public String getTargetingSite() {
+        return targetingSite;
+    }
+
+    public String getTargetingAdType() {
+        return targetingAdType;
+    }
+
+    public String getTargetingDeviceCategory() {
+        return targetingDeviceCategory;
+    }
+
+    public void setTargeting(String targetingSite, String targetingAdType, String targetingDeviceCategory) {
+        this.targetingSite = targetingSite;
+        this.targetingAdType = targetingAdType;
+        this.targetingDeviceCategory = targetingDeviceCategory;
+    }
     public BigDecimal getBidPrice() {
         return bidPrice;
     }
@@ -55,4 +113,49 @@ public class Campaign {
     public void setBidPrice(BigDecimal bidPrice) {
         this.bidPrice = bidPrice;
     }
-}
\ No newline at end of file
+
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    public Instant getFlightStart() {
+        return flightStart;
+    }
+
+    public Instant getFlightEnd() {
+        return flightEnd;
+    }
+
+    public void setFlight(Instant flightStart, Instant flightEnd) {
+        this.flightStart = flightStart;
+        this.flightEnd = flightEnd;
+    }
+
+    public PacingMode getPacing() {
+        return pacing;
+    }
+
+    public void setPacing(PacingMode pacing) {
+        this.pacing = pacing;
+    }
+
+    public Integer getFrequencyCap() {
+        return frequencyCap;
+    }
+
+    public void setFrequencyCap(Integer frequencyCap) {
+        this.frequencyCap = frequencyCap;
+    }
+
+    public boolean isActive() {
+        return !Boolean.FALSE.equals(active);
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
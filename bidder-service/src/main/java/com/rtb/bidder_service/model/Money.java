@@ -0,0 +1,50 @@
+package com.rtb.bidder_service.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between BigDecimal money (the JPA/API boundary) and long micros (the bid path).
+ *
+ * One micro is one millionth of a currency unit, as in OpenRTB: a 0.75 CPM is 750_000 micros.
+ * Rules:
+ * - Values with at most 6 decimal places convert exactly, in both directions.
+ * - Anything finer is rounded HALF_EVEN to the nearest micro (0.0000005 -> 0, 0.0000015 -> 2),
+ *   so rounding errors do not drift in one direction when many values are summed.
+ * - Values outside the long range throw ArithmeticException rather than wrapping.
+ * - null is rejected; callers decide what a missing price or budget means.
+ */
+public final class Money {
+
+    public static final int MICROS_SCALE = 6;
+    public static final long MICROS_PER_UNIT = 1_000_000L;
+
+    // Prices are CPM (per thousand impressions); spend is charged per impression.
+    public static final long IMPRESSIONS_PER_CPM = 1_000L;
+
+    private Money() {}
+
+    public static long toMicros(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("amount must not be null");
+        }
+        return amount.setScale(MICROS_SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMicros(long micros) {
+        return BigDecimal.valueOf(micros, MICROS_SCALE);
+    }
+
+    /**
+     * The cost of a single impression bought at this CPM, rounded HALF_EVEN to the micro.
+     */
+    public static long cpmToImpressionMicros(long cpmMicros) {
+        long whole = cpmMicros / IMPRESSIONS_PER_CPM;
+        long remainder = Math.abs(cpmMicros % IMPRESSIONS_PER_CPM);
+        long half = IMPRESSIONS_PER_CPM / 2;
+        if (remainder > half || (remainder == half && (whole & 1) != 0)) {
+            whole += Long.signum(cpmMicros);
+        }
+        return whole;
+    }
+}
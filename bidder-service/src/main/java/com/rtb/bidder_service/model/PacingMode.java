@@ -0,0 +1,18 @@
+package com.rtb.bidder_service.model;
+
+/**
+ * How a campaign's budget is released over its flight window.
+ */
+public enum PacingMode {
+
+    /**
+     * Spend as fast as matching traffic allows until the budget is gone.
+     */
+    ASAP,
+
+    /**
+     * Spend evenly: at any moment the campaign may have spent at most
+     * budget x (elapsed / flight length). Without a flight end this behaves like ASAP.
+     */
+    EVEN
+}
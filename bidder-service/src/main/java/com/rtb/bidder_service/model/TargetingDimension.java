@@ -0,0 +1,72 @@
+package com.rtb.bidder_service.model;
+
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * The BidRequest fields a campaign can target.
+ */
+public enum TargetingDimension {
+
+    GEO {
+        @Override
+        public String valueOf(BidRequest request) {
+            return request.geoId();
+        }
+
+        @Override
+        public TargetingRule ruleOf(BiddableCampaign campaign) {
+            return campaign.targetingGeo();
+        }
+    },
+    OS {
+        @Override
+        public String valueOf(BidRequest request) {
+            return request.osId();
+        }
+
+        @Override
+        public TargetingRule ruleOf(BiddableCampaign campaign) {
+            return campaign.targetingOs();
+        }
+    },
+    SITE {
+        @Override
+        public String valueOf(BidRequest request) {
+            return request.siteId();
+        }
+
+        @Override
+        public TargetingRule ruleOf(BiddableCampaign campaign) {
+            return campaign.targetingSite();
+        }
+    },
+    AD_TYPE {
+        @Override
+        public String valueOf(BidRequest request) {
+            return request.adTypeId();
+        }
+
+        @Override
+        public TargetingRule ruleOf(BiddableCampaign campaign) {
+            return campaign.targetingAdType();
+        }
+    },
+    DEVICE_CATEGORY {
+        @Override
+        public String valueOf(BidRequest request) {
+            return request.deviceCategoryId();
+        }
+
+        @Override
+        public TargetingRule ruleOf(BiddableCampaign campaign) {
+            return campaign.targetingDeviceCategory();
+        }
+    };
+
+    // values() clones its array on every call; the index iterates this instead.
+    public static final TargetingDimension[] ALL = values();
+
+    public abstract String valueOf(BidRequest request);
+
+    public abstract TargetingRule ruleOf(BiddableCampaign campaign);
+}
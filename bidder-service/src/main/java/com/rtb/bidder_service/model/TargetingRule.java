@@ -0,0 +1,55 @@
+package com.rtb.bidder_service.model;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Targeting for one dimension of one campaign, parsed from its column.
+ *
+ * The column is a comma-separated list of exact values. A value prefixed with "!" is
+ * excluded instead of included:
+ *   null / ""      -> any value
+ *   "187"          -> only 187
+ *   "187,188"      -> 187 or 188
+ *   "!18"          -> anything but 18
+ *   "187,188,!188" -> 187 (exclusions win)
+ * Matching is always exact: "18" never matches "187".
+ */
+public record TargetingRule(Set<String> includes, Set<String> excludes) {
+
+    public static final TargetingRule ANY = new TargetingRule(Set.of(), Set.of());
+
+    public static TargetingRule parse(String column) {
+        if (column == null || column.isBlank()) {
+            return ANY;
+        }
+        Set<String> includes = new LinkedHashSet<>();
+        Set<String> excludes = new LinkedHashSet<>();
+        for (String token : column.split(",")) {
+            String value = token.trim();
+            if (value.startsWith("!")) {
+                value = value.substring(1).trim();
+                if (!value.isEmpty()) {
+                    excludes.add(value);
+                }
+            } else if (!value.isEmpty()) {
+                includes.add(value);
+            }
+        }
+        return new TargetingRule(Set.copyOf(includes), Set.copyOf(excludes));
+    }
+
+    /**
+     * True if the campaign has no include list for this dimension.
+     */
+    public boolean includesAny() {
+        return includes.isEmpty();
+    }
+
+    public boolean matches(String value) {
+        if (value != null && excludes.contains(value)) {
+            return false;
+        }
+        return includes.isEmpty() || (value != null && includes.contains(value));
+    }
+}
@@ -0,0 +1,46 @@
+package com.rtb.bidder_service.publish;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+
+import com.rtb.publish.KafkaPublisher;
+import com.rtb.wire.dto.BidResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The one place bids leave the bidder: publishes to bid-responses, keyed by impressionId
+ * so every bid for an auction lands on the same partition.
+ *
+ * Producer tuning (rtb.publisher.profile, idempotence) is applied to the producer
+ * factory by KafkaProducerConfig; the in-flight bound and send metrics live in
+ * {@link KafkaPublisher}. Listeners that do not need the outcome can ignore the returned
+ * future: failures are counted and logged either way.
+ */
+@Component
+public class BidResponsePublisher {
+
+    public static final String TOPIC = "bid-responses";
+
+    private final KafkaPublisher<String, BidResponse> publisher;
+
+    public BidResponsePublisher(KafkaTemplate<String, BidResponse> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${rtb.publisher.max-in-flight:10000}") int maxInFlight,
+                                @Value("${rtb.publisher.max-block-ms:1000}") long maxBlockMillis) {
+        this.publisher = new KafkaPublisher<>(kafkaTemplate, TOPIC,
+                maxInFlight, maxBlockMillis, meterRegistry);
+    }
+
+    public CompletableFuture<SendResult<String, BidResponse>> publish(BidResponse bid) {
+        return publisher.send(bid.impressionId(), bid);
+    }
+
+    public int inFlight() {
+        return publisher.inFlight();
+    }
+}
@@ -1,12 +1,27 @@
 package com.rtb.bidder_service.repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.rtb.bidder_service.model.Campaign;
 
 public interface CampaignRepository extends JpaRepository<Campaign, Long> {
 
     List<Campaign> findByAdvertiserId(String advertiserId);
+
+    // Every row written after the watermark, oldest first.
+    List<Campaign> findByUpdatedAtAfterOrderByUpdatedAtAsc(Instant watermark);
+
+    // Atomic in the database, so concurrent replicas can each add their own delta.
+    @Modifying
+    @Transactional
+    @Query("update Campaign c set c.spent = coalesce(c.spent, 0) + :delta where c.id = :id")
+    int addSpend(@Param("id") Long id, @Param("delta") BigDecimal delta);
 }
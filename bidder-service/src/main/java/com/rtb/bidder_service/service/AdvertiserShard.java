@@ -0,0 +1,81 @@
+package com.rtb.bidder_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.Collection;
+
+import org.apache.kafka.common.utils.Utils;
+
+/**
+ * Which advertisers this replica bids for when rtb.sharding.enabled=true: those whose
+ * bid-requests partition is assigned to one of the pod's consumers.
+ *
+ * An advertiser's partition is Kafka's default key hash of its id (murmur2 over the
+ * UTF-8 bytes), so it matches a producer that keys bid-requests by advertiserId and the
+ * simulator's AdvertiserPartitioner, which keeps impressionId as the key.
+ *
+ * Immutable; CampaignIndexService swaps in a new one when the assignment changes.
+ */
+public final class AdvertiserShard {
+
+    // Sharding off: every advertiser.
+    public static final AdvertiserShard ALL = new AdvertiserShard(0, new BitSet());
+    // Sharding on, nothing assigned yet.
+    public static final AdvertiserShard NONE = new AdvertiserShard(1, new BitSet());
+
+    private final int partitionCount;
+    private final BitSet partitions;
+
+    private AdvertiserShard(int partitionCount, BitSet partitions) {
+        this.partitionCount = partitionCount;
+        this.partitions = partitions;
+    }
+
+    public static AdvertiserShard of(int partitionCount, Collection<Integer> partitions) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("partitionCount must be positive");
+        }
+        BitSet bits = new BitSet(partitionCount);
+        for (int partition : partitions) {
+            bits.set(partition);
+        }
+        return new AdvertiserShard(partitionCount, bits);
+    }
+
+    public static int partitionFor(String advertiserId, int partitionCount) {
+        return Utils.toPositive(Utils.murmur2(advertiserId.getBytes(StandardCharsets.UTF_8))) % partitionCount;
+    }
+
+    public boolean owns(String advertiserId) {
+        if (this == ALL) {
+            return true;
+        }
+        return advertiserId != null && partitions.get(partitionFor(advertiserId, partitionCount));
+    }
+
+    /**
+     * True if this shard already covers every advertiser of the given partitions.
+     */
+    public boolean covers(int partitionCount, Collection<Integer> partitions) {
+        if (this == ALL) {
+            return true;
+        }
+        if (partitionCount != this.partitionCount) {
+            return false;
+        }
+        for (int partition : partitions) {
+            if (!this.partitions.get(partition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        if (this == ALL) {
+            return "all advertisers";
+        }
+        return this == NONE ? "no partitions assigned" : "partitions " + partitions + " of " + partitionCount;
+    }
+}
@@ -0,0 +1,164 @@
+package com.rtb.bidder_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.rtb.bidder_service.decisionlog.DecisionLog;
+import com.rtb.bidder_service.decisionlog.DecisionOutcome;
+import com.rtb.bidder_service.metrics.BidMetrics;
+import com.rtb.bidder_service.metrics.BidMetrics.Stage;
+import com.rtb.bidder_service.publish.BidResponsePublisher;
+import com.rtb.bidder_service.service.DeadlineGuard.Admission;
+import com.rtb.wire.dto.BidRequest;
+import com.rtb.wire.dto.BidResponse;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Batch mode (rtb.listener.mode=batch).
+ *
+ * Each poll's records arrive as one list, are decided together by
+ * {@link BidDecisionService#decideBatch}, and all resulting bids are handed to the
+ * producer back to back. Timers, index snapshots and advertiser lookups are paid once
+ * per batch instead of once per record. With the default BATCH ack mode the container
+ * commits offsets once, after this method returns. Requests past (or too close to) their
+ * deadline are taken out of the batch before it is decided (see DeadlineGuard).
+ */
+@Service
+@ConditionalOnProperty(name = "rtb.listener.mode", havingValue = "batch")
+public class BatchBidderKafkaListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchBidderKafkaListener.class);
+
+    private final BidDecisionService bidDecisionService;
+    private final DeadlineGuard deadlineGuard;
+    private final DecisionLog decisionLog;
+    private final BidMetrics metrics;
+    private final BidResponsePublisher publisher;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    // When true, the batch is not returned (and so not committed) until every bid in it
+    // has been acknowledged by the broker. Trades a little latency for at-least-once bids.
+    private final boolean awaitSends;
+    private final long sendTimeoutMs;
+
+    public BatchBidderKafkaListener(BidDecisionService bidDecisionService,
+                                    DeadlineGuard deadlineGuard,
+                                    MeterRegistry meterRegistry,
+                                    BidResponsePublisher publisher,
+                                    DecisionLog decisionLog,
+                                    BidMetrics metrics,
+                                    @Value("${rtb.batch.await-sends:false}") boolean awaitSends,
+                                    @Value("${rtb.batch.send-timeout-ms:5000}") long sendTimeoutMs) {
+        this.bidDecisionService = bidDecisionService;
+        this.deadlineGuard = deadlineGuard;
+        this.decisionLog = decisionLog;
+        this.metrics = metrics;
+        this.publisher = publisher;
+        this.awaitSends = awaitSends;
+        this.sendTimeoutMs = sendTimeoutMs;
+
+        this.batchTimer = Timer.builder("rtb.bid.batch.timer")
+            .description("Measures the latency of deciding and publishing one polled batch of bid requests")
+            .publishPercentileHistogram(true)
+            .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("rtb.bid.batch.size")
+            .description("Number of bid requests handed to the listener per poll")
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(id = BidderKafkaListener.LISTENER_ID, autoStartup = "false",
+                   topics = BidderKafkaListener.REQUEST_TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+                   concurrency = "${rtb.listener.concurrency:3}", containerFactory = "batchListenerContainerFactory")
+    public void handleBidRequests(List<BidRequest> polled) {
+        batchSize.record(polled.size());
+        List<BidRequest> requests = admit(polled);
+
+        long start = System.nanoTime();
+        int[] bidsPerRequest = new int[requests.size()];
+        List<BidResponse> bids = bidDecisionService.decideBatch(requests, bidsPerRequest);
+
+        CompletableFuture<?>[] sends = new CompletableFuture<?>[bids.size()];
+        for (int i = 0; i < bids.size(); i++) {
+            BidResponse bid = bids.get(i);
+            long sendStart = metrics.stageStart();
+            sends[i] = publisher.publish(bid);
+            metrics.recordStage(Stage.SEND, sendStart);
+        }
+
+        try {
+            if (awaitSends && sends.length > 0) {
+                CompletableFuture.allOf(sends).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (Exception e) {
+            // Rethrow so the container does not commit this batch and it is redelivered.
+            throw new IllegalStateException("Failed to publish bids for batch of " + requests.size(), e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            batchTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            logDecisions(requests, bids, bidsPerRequest, elapsed);
+        }
+        log.debug("Batch of {} requests produced {} bids", requests.size(), bids.size());
+    }
+
+    // Drops expired and shed requests before the batch is decided. The poll's list is
+    // only copied when something is actually dropped.
+    private List<BidRequest> admit(List<BidRequest> polled) {
+        long now = System.currentTimeMillis();
+        List<BidRequest> admitted = null;
+        for (int i = 0; i < polled.size(); i++) {
+            BidRequest request = polled.get(i);
+            Admission admission = request != null ? deadlineGuard.admit(request, now) : Admission.ADMIT;
+            if (admission == Admission.ADMIT) {
+                if (admitted != null) {
+                    admitted.add(request);
+                }
+                continue;
+            }
+            if (admitted == null) {
+                admitted = new ArrayList<>(polled.size());
+                admitted.addAll(polled.subList(0, i));
+            }
+            DecisionOutcome outcome = admission == Admission.EXPIRED ? DecisionOutcome.EXPIRED : DecisionOutcome.SHED;
+            metrics.recordDecision(request.advertiserId(), outcome);
+            decisionLog.record(request.impressionId(), request.advertiserId(), null, outcome, 0L);
+        }
+        return admitted != null ? admitted : polled;
+    }
+
+    // Bids come back in request order, bidsPerRequest[i] of them for request i, so one pass
+    // pairs every request with its first bid by position. The outcome counters and
+    // end-to-end latency are recorded in the same pass. Requests in a batch are decided
+    // together, so each record carries the batch latency.
+    private void logDecisions(List<BidRequest> requests, List<BidResponse> bids, int[] bidsPerRequest,
+                              long batchNanos) {
+        long now = System.currentTimeMillis();
+        long perRequestNanos = batchNanos / Math.max(1, requests.size());
+        int next = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            BidRequest request = requests.get(i);
+            if (request == null) {
+                continue;
+            }
+            String campaignId = bidsPerRequest[i] > 0 ? bids.get(next).campaignId() : null;
+            next += bidsPerRequest[i];
+            DecisionOutcome outcome = campaignId != null ? DecisionOutcome.BID : DecisionOutcome.NO_BID;
+            metrics.recordDecision(request.advertiserId(), outcome);
+            metrics.recordEndToEnd(request.createdAtMillis());
+            deadlineGuard.completed(request, now, perRequestNanos);
+            decisionLog.record(request.impressionId(), request.advertiserId(), campaignId, outcome, batchNanos);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.rtb.bidder_service.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.rtb.bidder_service.budget.ChargePoint;
+import com.rtb.bidder_service.metrics.BidMetrics;
+import com.rtb.bidder_service.metrics.BidMetrics.Stage;
+import com.rtb.bidder_service.model.BiddableCampaign;
+import com.rtb.bidder_service.service.CampaignIndex.AdvertiserCampaigns;
+import com.rtb.bidder_service.service.CampaignIndex.Match;
+import com.rtb.wire.dto.BidRequest;
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * The bid decision itself, with no Kafka or logging concerns.
+ *
+ * Both the record listener and the batch listener call into this class, so the two
+ * modes always make the same decision for the same request. The lookup, targeting and
+ * selection stages are timed here (see BidMetrics).
+ */
+@Service
+public class BidDecisionService {
+
+    private final CampaignIndexService campaignIndexService;
+    private final CampaignSelector campaignSelector;
+    private final BidMetrics metrics;
+    // With rtb.budget.charge-on=WIN spend is recorded by WinNoticeListener instead.
+    private final boolean chargeOnBid;
+
+    // Reusable match and picks per consumer thread, so targeting and selection never allocate.
+    private final ThreadLocal<Scratch> scratch;
+
+    public BidDecisionService(CampaignIndexService campaignIndexService, CampaignSelector campaignSelector,
+                              BidMetrics metrics,
+                              @Value("${rtb.budget.charge-on:BID}") ChargePoint chargeOn) {
+        this.campaignIndexService = campaignIndexService;
+        this.campaignSelector = campaignSelector;
+        this.metrics = metrics;
+        this.chargeOnBid = chargeOn == ChargePoint.BID;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(campaignSelector.maxBidsPerImpression()));
+    }
+
+    /**
+     * Decides a single request and hands every bid to the sink. Returns the number of bids.
+     */
+    public int decide(BidRequest request, BidSink sink) {
+        // One sampling decision covers every stage of the request.
+        long start = metrics.stageStart();
+        AdvertiserCampaigns advertiserCampaigns = campaignIndexService.current().forAdvertiser(request.advertiserId());
+        return decide(request, advertiserCampaigns, sink, metrics.recordLookup(start));
+    }
+
+    /**
+     * Decides a single request against an advertiser's campaigns that the caller has
+     * already resolved. Returns the number of bids handed to the sink.
+     */
+    public int decide(BidRequest request, AdvertiserCampaigns advertiserCampaigns, BidSink sink) {
+        return decide(request, advertiserCampaigns, sink, metrics.stageStart());
+    }
+
+    private int decide(BidRequest request, AdvertiserCampaigns advertiserCampaigns, BidSink sink, long start) {
+        // The match holds exactly the campaigns whose targeting accepts this request, best bid first.
+        // Targeting resolves one bitset per dimension; the word-by-word AND of those bitsets
+        // happens lazily while the selector walks them, so it is counted as selection.
+        Scratch local = scratch.get();
+        BiddableCampaign[] selected = local.picks;
+        Match match = advertiserCampaigns.match(request, local.match);
+        start = metrics.recordStage(Stage.TARGETING, start);
+        int count = campaignSelector.select(request, match, selected);
+        metrics.recordStage(Stage.SELECTION, start);
+
+        for (int i = 0; i < count; i++) {
+            BiddableCampaign campaign = selected[i];
+            selected[i] = null;
+            if (chargeOnBid) {
+                campaign.budget().recordSpend(campaign.impressionCostMicros());
+            }
+
+            // Ids and prices were pre-computed at index build time, so the response is
+            // the only allocation here.
+            sink.accept(new BidResponse(
+                request.impressionId(),
+                campaign.campaignId(), // The campaign's DB ID
+                campaign.advertiserId(),
+                campaign.bidPriceMicros()
+            ));
+        }
+        return count;
+    }
+
+    /**
+     * The vectorised decision step for batch consumption.
+     *
+     * One index snapshot is used for the whole batch, and each distinct advertiser is
+     * resolved once no matter how many of its requests are in the poll. Returns only
+     * the bids, in request order; bidsPerRequest[i] is set to the number of them that
+     * belong to requests.get(i), so callers can pair bids with requests by position.
+     */
+    public List<BidResponse> decideBatch(List<BidRequest> requests, int[] bidsPerRequest) {
+        CampaignIndex index = campaignIndexService.current();
+        Map<String, AdvertiserCampaigns> resolved = new HashMap<>();
+        List<BidResponse> bids = new ArrayList<>(requests.size());
+        BidSink collector = bids::add;
+
+        for (int i = 0; i < requests.size(); i++) {
+            BidRequest request = requests.get(i);
+            if (request == null) {
+                bidsPerRequest[i] = 0;
+                continue;
+            }
+            AdvertiserCampaigns advertiserCampaigns = resolved.get(request.advertiserId());
+            if (advertiserCampaigns == null) {
+                long start = metrics.stageStart();
+                advertiserCampaigns = index.forAdvertiser(request.advertiserId());
+                metrics.recordLookup(start);
+                if (request.advertiserId() != null) {
+                    resolved.put(request.advertiserId(), advertiserCampaigns);
+                }
+            }
+            bidsPerRequest[i] = decide(request, advertiserCampaigns, collector);
+        }
+        return bids;
+    }
+
+    private static final class Scratch {
+        final Match match = new Match();
+        final BiddableCampaign[] picks;
+
+        Scratch(int maxBids) {
+            this.picks = new BiddableCampaign[maxBids];
+        }
+    }
+}
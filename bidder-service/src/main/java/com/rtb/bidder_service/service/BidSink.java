@@ -0,0 +1,12 @@
+package com.rtb.bidder_service.service;
+
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * Receives the bids produced by {@link BidDecisionService}, one call per bid.
+ */
+@FunctionalInterface
+public interface BidSink {
+
+    void accept(BidResponse bid);
+}
@@ -0,0 +1,88 @@
+package com.rtb.bidder_service.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.repository.CampaignRepository;
+
+/**
+ * Change feed for rtb.campaigns.updates.source=poll (the default).
+ *
+ * Every rtb.campaigns.updates.poll-interval-ms, asks Postgres for the campaigns written
+ * after the watermark (the newest updatedAt applied so far) and hands their advertisers
+ * to {@link CampaignIndexService#applyChanges}. Deactivating a campaign is an update like
+ * any other, so deletes travel the same way.
+ *
+ * updatedAt is set by the database (current_timestamp, see Campaign), so writers with
+ * skewed clocks cannot stamp a row behind the watermark. Postgres takes that timestamp
+ * when the transaction starts, though, so a transaction that commits after a newer row
+ * has been polled still carries an older updatedAt. Each poll therefore looks back
+ * rtb.campaigns.updates.poll-overlap-ms behind the watermark and skips the rows it has
+ * already applied at the same updatedAt. Only a transaction open for longer than the
+ * overlap can still slip through; the periodic full refresh
+ * (rtb.index.refresh-interval-ms) picks those up.
+ */
+@Component
+@ConditionalOnProperty(name = "rtb.campaigns.updates.source", havingValue = "poll", matchIfMissing = true)
+public class CampaignChangePoller {
+
+    private final CampaignRepository campaignRepository;
+    private final CampaignIndexService campaignIndexService;
+    private final Duration overlap;
+
+    // Scheduler thread only.
+    private Instant watermark;
+    // Rows already applied inside the overlap, by id, with the updatedAt they were applied at.
+    private final Map<Long, Instant> applied = new HashMap<>();
+
+    public CampaignChangePoller(CampaignRepository campaignRepository, CampaignIndexService campaignIndexService,
+                                @Value("${rtb.campaigns.updates.poll-overlap-ms:5000}") long overlapMillis) {
+        this.campaignRepository = campaignRepository;
+        this.campaignIndexService = campaignIndexService;
+        this.overlap = Duration.ofMillis(overlapMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${rtb.campaigns.updates.poll-interval-ms:1000}")
+    public void poll() {
+        Instant loaded = campaignIndexService.loadedUpTo();
+        if (loaded == null) {
+            // Warm start has not loaded the index yet; it will cover everything up to now.
+            return;
+        }
+        if (watermark == null || loaded.isAfter(watermark)) {
+            watermark = loaded;
+        }
+
+        Instant since = watermark.minus(overlap);
+        applied.values().removeIf(updatedAt -> !updatedAt.isAfter(since));
+        List<Campaign> changed = campaignRepository.findByUpdatedAtAfterOrderByUpdatedAtAsc(since);
+        Set<String> advertiserIds = new LinkedHashSet<>();
+        for (Campaign campaign : changed) {
+            if (campaign.getUpdatedAt().equals(applied.put(campaign.getId(), campaign.getUpdatedAt()))) {
+                continue; // seen on an earlier poll
+            }
+            if (campaign.getAdvertiserId() != null) {
+                advertiserIds.add(campaign.getAdvertiserId());
+            }
+        }
+        if (advertiserIds.isEmpty()) {
+            return;
+        }
+        campaignIndexService.applyChanges(advertiserIds);
+        Instant newest = changed.get(changed.size() - 1).getUpdatedAt();
+        if (newest.isAfter(watermark)) {
+            watermark = newest;
+        }
+    }
+}
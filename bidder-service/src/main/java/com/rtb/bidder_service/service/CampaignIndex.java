@@ -0,0 +1,334 @@
+package com.rtb.bidder_service.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.rtb.bidder_service.budget.CampaignBudget;
+import com.rtb.bidder_service.model.BiddableCampaign;
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.model.TargetingDimension;
+import com.rtb.bidder_service.model.TargetingRule;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * An immutable, in-process view of every campaign, pre-indexed for the bid path.
+ *
+ * Campaigns are grouped by advertiserId, and each advertiser's campaigns are ranked by
+ * bid price, highest first, with equal prices ordered by the configured {@link TieBreaker}.
+ * A campaign's rank is also its bit position in a set of bitsets compiled from its
+ * {@link TargetingRule}s: for every dimension (geo, OS, site, ad type, device category)
+ * and every value any campaign mentions, one bitset of the campaigns that accept that
+ * value, plus one bitset for the values nobody mentions.
+ *
+ * Matching a request is then one map probe per dimension and a word-wide AND of five
+ * bitsets, so the cost grows with campaigns / 64 rather than campaigns x targeting values.
+ * Because bit order is rank order, selection can still stop at the first eligible campaign.
+ *
+ * Instances are never mutated after {@link #build(Collection)}. A full refresh builds a
+ * whole new index, an incremental change rebuilds one advertiser with
+ * {@link #withAdvertiser}, and {@link CampaignIndexService} swaps the result in atomically.
+ */
+public final class CampaignIndex {
+
+    public static final CampaignIndex EMPTY = new CampaignIndex(Map.of(), 0);
+
+    private static final int DIMENSIONS = TargetingDimension.ALL.length;
+
+    private final Map<String, AdvertiserCampaigns> byAdvertiser;
+    private final int campaignCount;
+
+    private CampaignIndex(Map<String, AdvertiserCampaigns> byAdvertiser, int campaignCount) {
+        this.byAdvertiser = byAdvertiser;
+        this.campaignCount = campaignCount;
+    }
+
+    /**
+     * Builds an index whose campaigns never run out of budget (benchmarks, tests).
+     */
+    public static CampaignIndex build(Collection<Campaign> campaigns) {
+        return build(campaigns, campaign -> CampaignBudget.unlimited(campaign.getId() != null ? campaign.getId() : 0L),
+                TieBreakers.LOWEST_ID);
+    }
+
+    /**
+     * Builds an index, attaching to each campaign the budget state that budgets() returns for
+     * it and ranking equal-price campaigns with the tie-breaker's order.
+     */
+    public static CampaignIndex build(Collection<Campaign> campaigns, Function<Campaign, CampaignBudget> budgets,
+                                      TieBreaker tieBreaker) {
+        Map<String, List<BiddableCampaign>> grouped = new LinkedHashMap<>();
+        int indexed = 0;
+        for (Campaign campaign : campaigns) {
+            if (!isBiddable(campaign)) {
+                continue;
+            }
+            grouped.computeIfAbsent(campaign.getAdvertiserId(), k -> new ArrayList<>())
+                    .add(BiddableCampaign.from(campaign, budgets.apply(campaign)));
+            indexed++;
+        }
+
+        Comparator<BiddableCampaign> ranking = ranking(tieBreaker);
+        Map<String, AdvertiserCampaigns> byAdvertiser = new HashMap<>(grouped.size() * 2);
+        grouped.forEach((advertiserId, list) -> {
+            list.sort(ranking);
+            byAdvertiser.put(advertiserId, AdvertiserCampaigns.build(list));
+        });
+        return new CampaignIndex(Map.copyOf(byAdvertiser), indexed);
+    }
+
+    /**
+     * Returns a copy of this index in which one advertiser's campaigns are replaced by
+     * the given set (its complete current campaigns, not a delta). Every other advertiser
+     * is shared with this index as-is, so the cost is one advertiser's build plus a map copy.
+     */
+    public CampaignIndex withAdvertiser(String advertiserId, Collection<Campaign> campaigns,
+                                        Function<Campaign, CampaignBudget> budgets, TieBreaker tieBreaker) {
+        List<BiddableCampaign> list = new ArrayList<>();
+        for (Campaign campaign : campaigns) {
+            if (isBiddable(campaign) && advertiserId.equals(campaign.getAdvertiserId())) {
+                list.add(BiddableCampaign.from(campaign, budgets.apply(campaign)));
+            }
+        }
+        list.sort(ranking(tieBreaker));
+
+        Map<String, AdvertiserCampaigns> byAdvertiser = new HashMap<>(this.byAdvertiser);
+        AdvertiserCampaigns previous = list.isEmpty()
+                ? byAdvertiser.remove(advertiserId)
+                : byAdvertiser.put(advertiserId, AdvertiserCampaigns.build(list));
+        int count = campaignCount - (previous != null ? previous.size() : 0) + list.size();
+        return new CampaignIndex(Map.copyOf(byAdvertiser), count);
+    }
+
+    /**
+     * Returns the campaigns of this advertiser, never null. Batch consumers resolve
+     * this once per advertiser and then call {@link AdvertiserCampaigns#match} per request.
+     */
+    public AdvertiserCampaigns forAdvertiser(String advertiserId) {
+        if (advertiserId == null) {
+            return AdvertiserCampaigns.EMPTY;
+        }
+        AdvertiserCampaigns campaigns = byAdvertiser.get(advertiserId);
+        return campaigns != null ? campaigns : AdvertiserCampaigns.EMPTY;
+    }
+
+    /**
+     * Matches this request into the caller's {@link Match} and returns it.
+     */
+    public Match lookup(BidRequest request, Match into) {
+        return forAdvertiser(request.advertiserId()).match(request, into);
+    }
+
+    /**
+     * Ids of every indexed campaign. Walks the whole index, so keep it off the bid path.
+     */
+    public Set<Long> campaignIds() {
+        Set<Long> ids = new HashSet<>(campaignCount * 2);
+        for (AdvertiserCampaigns campaigns : byAdvertiser.values()) {
+            for (int rank = 0; rank < campaigns.size(); rank++) {
+                ids.add(campaigns.get(rank).id());
+            }
+        }
+        return ids;
+    }
+
+    public int advertiserCount() {
+        return byAdvertiser.size();
+    }
+
+    public int campaignCount() {
+        return campaignCount;
+    }
+
+    /**
+     * The ranked campaigns of a single advertiser and their compiled targeting.
+     *
+     * groupEnd(i) is the exclusive end of the run of equal-price campaigns that rank i
+     * belongs to, so selection can rotate within a tie group without comparing prices.
+     */
+    public static final class AdvertiserCampaigns {
+
+        static final AdvertiserCampaigns EMPTY = build(List.of());
+
+        private final BiddableCampaign[] ranked;
+        private final int[] groupEnd;
+        private final DimensionIndex[] dimensions;
+
+        private AdvertiserCampaigns(BiddableCampaign[] ranked, int[] groupEnd, DimensionIndex[] dimensions) {
+            this.ranked = ranked;
+            this.groupEnd = groupEnd;
+            this.dimensions = dimensions;
+        }
+
+        // campaigns must already be ranked; bit i always stands for ranked[i].
+        static AdvertiserCampaigns build(List<BiddableCampaign> campaigns) {
+            BiddableCampaign[] ranked = campaigns.toArray(new BiddableCampaign[0]);
+            int[] groupEnd = new int[ranked.length];
+            int end = ranked.length;
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                if (i < ranked.length - 1 && ranked[i].bidPriceMicros() != ranked[i + 1].bidPriceMicros()) {
+                    end = i + 1;
+                }
+                groupEnd[i] = end;
+            }
+
+            DimensionIndex[] dimensions = new DimensionIndex[DIMENSIONS];
+            for (TargetingDimension dimension : TargetingDimension.ALL) {
+                dimensions[dimension.ordinal()] = DimensionIndex.build(ranked, dimension);
+            }
+            return new AdvertiserCampaigns(ranked, groupEnd, dimensions);
+        }
+
+        /**
+         * Resolves this request's value in every dimension to its bitset. Nothing is
+         * combined yet: the {@link Match} ANDs the bitsets word by word as selection asks.
+         */
+        public Match match(BidRequest request, Match into) {
+            into.campaigns = this;
+            for (int d = 0; d < DIMENSIONS; d++) {
+                into.allowed[d] = dimensions[d].allowed(TargetingDimension.ALL[d].valueOf(request));
+            }
+            return into;
+        }
+
+        public int size() {
+            return ranked.length;
+        }
+
+        public boolean isEmpty() {
+            return ranked.length == 0;
+        }
+
+        public BiddableCampaign get(int rank) {
+            return ranked[rank];
+        }
+
+        public int groupEnd(int rank) {
+            return groupEnd[rank];
+        }
+    }
+
+    /**
+     * One targeting dimension of one advertiser, compiled to bitsets over campaign rank.
+     */
+    static final class DimensionIndex {
+
+        private final Map<String, long[]> allowedByValue;
+        private final long[] allowedOtherwise;
+
+        private DimensionIndex(Map<String, long[]> allowedByValue, long[] allowedOtherwise) {
+            this.allowedByValue = allowedByValue;
+            this.allowedOtherwise = allowedOtherwise;
+        }
+
+        static DimensionIndex build(BiddableCampaign[] ranked, TargetingDimension dimension) {
+            // A value that no campaign mentions (or a missing value) is accepted exactly
+            // by the campaigns without an include list.
+            long[] otherwise = new long[words(ranked.length)];
+            for (int i = 0; i < ranked.length; i++) {
+                if (dimension.ruleOf(ranked[i]).includesAny()) {
+                    otherwise[i >>> 6] |= 1L << i;
+                }
+            }
+
+            // Every mentioned value starts from that, gains its includers and loses its excluders.
+            Map<String, long[]> byValue = new HashMap<>();
+            for (int i = 0; i < ranked.length; i++) {
+                TargetingRule rule = dimension.ruleOf(ranked[i]);
+                for (String value : rule.includes()) {
+                    byValue.computeIfAbsent(value, v -> otherwise.clone())[i >>> 6] |= 1L << i;
+                }
+                for (String value : rule.excludes()) {
+                    byValue.computeIfAbsent(value, v -> otherwise.clone());
+                }
+            }
+            for (int i = 0; i < ranked.length; i++) {
+                for (String value : dimension.ruleOf(ranked[i]).excludes()) {
+                    byValue.get(value)[i >>> 6] &= ~(1L << i);
+                }
+            }
+            return new DimensionIndex(Map.copyOf(byValue), otherwise);
+        }
+
+        long[] allowed(String value) {
+            long[] bits = value != null ? allowedByValue.get(value) : null;
+            return bits != null ? bits : allowedOtherwise;
+        }
+    }
+
+    /**
+     * The campaigns of one advertiser that match one request.
+     *
+     * A Match is scratch space owned by one thread and overwritten by the next
+     * {@link AdvertiserCampaigns#match}, so evaluating targeting allocates nothing.
+     */
+    public static final class Match {
+
+        private AdvertiserCampaigns campaigns = AdvertiserCampaigns.EMPTY;
+        private final long[][] allowed = new long[DIMENSIONS][];
+
+        public AdvertiserCampaigns campaigns() {
+            return campaigns;
+        }
+
+        /**
+         * The first matching rank at or after from, or -1 if there is none.
+         */
+        public int nextMatch(int from) {
+            int size = campaigns.size();
+            if (from >= size) {
+                return -1;
+            }
+            int w = from >>> 6;
+            int lastWord = words(size) - 1;
+            long bits = word(w) & (-1L << from);
+            while (bits == 0) {
+                if (++w > lastWord) {
+                    return -1;
+                }
+                bits = word(w);
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(bits);
+        }
+
+        /**
+         * How many matching ranks fall in [from, to).
+         */
+        public int countMatches(int from, int to) {
+            int count = 0;
+            for (int rank = nextMatch(from); rank >= 0 && rank < to; rank = nextMatch(rank + 1)) {
+                count++;
+            }
+            return count;
+        }
+
+        private long word(int w) {
+            long bits = allowed[0][w];
+            for (int d = 1; d < DIMENSIONS && bits != 0; d++) {
+                bits &= allowed[d][w];
+            }
+            return bits;
+        }
+    }
+
+    // A campaign without an advertiser or a price can never win a bid, and a
+    // deactivated one must not.
+    private static boolean isBiddable(Campaign campaign) {
+        return campaign.getAdvertiserId() != null && campaign.getBidPrice() != null && campaign.isActive();
+    }
+
+    private static Comparator<BiddableCampaign> ranking(TieBreaker tieBreaker) {
+        return Comparator.comparingLong(BiddableCampaign::bidPriceMicros).reversed().thenComparing(tieBreaker.order());
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
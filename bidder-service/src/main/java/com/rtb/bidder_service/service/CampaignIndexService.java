@@ -0,0 +1,151 @@
+package com.rtb.bidder_service.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.rtb.bidder_service.budget.BudgetManager;
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.repository.CampaignRepository;
+
+/**
+ * Owns the live {@link CampaignIndex} that the bid path reads.
+ *
+ * The bid path only ever does a volatile read of {@link #current()}. Postgres feeds
+ * the index in two ways:
+ * - {@link #refresh()}: one bulk query and a full rebuild. Runs once during warm start
+ *   (see {@link WarmStart}) and then every rtb.index.refresh-interval-ms as a safety net.
+ * - {@link #applyChanges}: re-reads only the advertisers a change feed reported and
+ *   rebuilds just their part of the index (see {@link CampaignChangePoller} and
+ *   {@link CampaignUpdateListener}).
+ * Either way the new index is built off to the side and published with a single
+ * reference swap, so a bid never sees a half-built index and never waits on the database.
+ *
+ * With rtb.sharding.enabled=true the index only holds the advertisers of this pod's
+ * bid-requests partitions ({@link AdvertiserShard}, kept current by
+ * {@link ShardAssignmentListener}), so its size follows the pod's share of the catalogue
+ * rather than the whole of it. Until partitions are assigned it holds nothing.
+ */
+@Service
+public class CampaignIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(CampaignIndexService.class);
+
+    private final CampaignRepository campaignRepository;
+    private final BudgetManager budgetManager;
+    private final TieBreaker tieBreaker;
+    private final CampaignService campaignService;
+
+    private volatile CampaignIndex current = CampaignIndex.EMPTY;
+    private volatile AdvertiserShard shard;
+
+    // Newest updatedAt seen by a full refresh; change pollers start from here.
+    private volatile Instant loadedUpTo;
+
+    public CampaignIndexService(CampaignRepository campaignRepository, BudgetManager budgetManager,
+                                TieBreaker tieBreaker, CampaignService campaignService,
+                                @Value("${rtb.sharding.enabled:false}") boolean sharded) {
+        this.shard = sharded ? AdvertiserShard.NONE : AdvertiserShard.ALL;
+        this.campaignRepository = campaignRepository;
+        this.budgetManager = budgetManager;
+        this.tieBreaker = tieBreaker;
+        this.campaignService = campaignService;
+    }
+
+    /**
+     * The index to use for this bid decision. Never null; empty until the first refresh.
+     */
+    public CampaignIndex current() {
+        return current;
+    }
+
+    /**
+     * The newest updatedAt among the campaigns of the last full refresh, or null before it.
+     */
+    public Instant loadedUpTo() {
+        return loadedUpTo;
+    }
+
+    public AdvertiserShard shard() {
+        return shard;
+    }
+
+    /**
+     * Switches to a new shard. With reload, rebuilds the index for it right away;
+     * otherwise it applies from the next refresh.
+     */
+    public synchronized void reshard(AdvertiserShard shard, boolean reload) {
+        this.shard = shard;
+        if (reload) {
+            refresh();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${rtb.index.refresh-interval-ms:300000}",
+               fixedDelayString = "${rtb.index.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            // Keep bidding on the previous index; the next tick will try again.
+            log.error("Campaign index refresh failed, keeping the previous index", e);
+        }
+    }
+
+    // Both writers are synchronized so an incremental change can never be overwritten
+    // by a full rebuild that started from an older snapshot, or the other way round.
+    public synchronized CampaignIndex refresh() {
+        long start = System.nanoTime();
+        List<Campaign> all = campaignRepository.findAll();
+        AdvertiserShard shard = this.shard;
+        List<Campaign> campaigns = shard == AdvertiserShard.ALL ? all
+                : all.stream().filter(campaign -> shard.owns(campaign.getAdvertiserId())).toList();
+        CampaignIndex index = CampaignIndex.build(campaigns, budgetManager::register, tieBreaker);
+        this.current = index;
+
+        Set<Long> ids = campaigns.stream().filter(Campaign::isActive).map(Campaign::getId).collect(Collectors.toSet());
+        budgetManager.retainOnly(ids);
+        // Over every campaign, not just the shard, so change pollers skip nothing.
+        Instant newest = all.stream().map(Campaign::getUpdatedAt).filter(t -> t != null)
+                .max(Instant::compareTo).orElse(Instant.EPOCH);
+        if (loadedUpTo == null || newest.isAfter(loadedUpTo)) {
+            loadedUpTo = newest;
+        }
+        log.info("Campaign index rebuilt: {} campaigns across {} advertisers ({}) in {} ms",
+                index.campaignCount(), index.advertiserCount(), shard, (System.nanoTime() - start) / 1_000_000);
+        return index;
+    }
+
+    /**
+     * Re-reads these advertisers from Postgres, swaps their part of the index and evicts
+     * their Redis cache entries. Advertisers with no active campaigns left are dropped,
+     * and advertisers outside this pod's shard are not read at all.
+     */
+    public synchronized CampaignIndex applyChanges(Collection<String> advertiserIds) {
+        CampaignIndex index = current;
+        for (String advertiserId : advertiserIds) {
+            if (!shard.owns(advertiserId)) {
+                continue;
+            }
+            List<Campaign> campaigns = campaignRepository.findByAdvertiserId(advertiserId);
+            index = index.withAdvertiser(advertiserId, campaigns, budgetManager::register, tieBreaker);
+        }
+        this.current = index;
+
+        budgetManager.retainOnly(index.campaignIds());
+        for (String advertiserId : advertiserIds) {
+            campaignService.evict(advertiserId);
+        }
+        log.info("Campaign index updated for {} advertisers: {} campaigns across {} advertisers",
+                advertiserIds.size(), index.campaignCount(), index.advertiserCount());
+        return index;
+    }
+}
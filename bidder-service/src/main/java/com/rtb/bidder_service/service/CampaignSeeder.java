@@ -0,0 +1,173 @@
+package com.rtb.bidder_service.service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.model.PacingMode;
+
+/**
+ * Seeds the data-driven sample campaigns into Postgres at startup (rtb.campaigns.seed.mode).
+ *
+ * - OFF: never touches the table. For every pod of a scaled-out deployment but the one
+ *   (or the one-off job) that owns seeding.
+ * - IF_EMPTY: seeds only an empty table, so restarts and extra pods leave live campaigns
+ *   and their spend alone. Two pods starting against the same empty table at the same
+ *   moment can both seed; give the job to one of them.
+ * - REPLACE: deletes every campaign and seeds afresh (the old behaviour, for local runs).
+ *
+ * The rows go in as one JDBC batch in one transaction rather than through JPA, whose
+ * IDENTITY ids force a round trip per row. With reWriteBatchedInserts on the Postgres URL
+ * the driver sends the batch as multi-row INSERTs. updated_at is set to the database's
+ * current_timestamp here, as Hibernate would, since JDBC inserts bypass the entity mapping.
+ *
+ * Runs as a CommandLineRunner, so it finishes before WarmStart builds the index.
+ */
+@Component
+public class CampaignSeeder implements CommandLineRunner {
+
+    public enum Mode {
+        OFF,
+        IF_EMPTY,
+        REPLACE
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(CampaignSeeder.class);
+
+    private static final String INSERT = "INSERT INTO campaigns (advertiser_id, budget, bid_price, "
+            + "targeting_geo, targeting_os, targeting_site, targeting_ad_type, targeting_device_category, "
+            + "flight_start, flight_end, pacing, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CampaignService campaignService;
+    private final Mode mode;
+
+    // Flight window and pacing given to the sample campaigns.
+    private final Duration sampleFlight;
+    private final PacingMode samplePacing;
+
+    public CampaignSeeder(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                          CampaignService campaignService,
+                          @Value("${rtb.campaigns.seed.mode:OFF}") Mode mode,
+                          @Value("${rtb.budget.sample-flight:PT24H}") Duration sampleFlight,
+                          @Value("${rtb.budget.default-pacing:EVEN}") PacingMode samplePacing) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.campaignService = campaignService;
+        this.mode = mode;
+        this.sampleFlight = sampleFlight;
+        this.samplePacing = samplePacing;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (mode == Mode.OFF) {
+            log.info("Campaign seeding is off (rtb.campaigns.seed.mode=OFF)");
+            return;
+        }
+        long start = System.nanoTime();
+        Integer seeded = transactionTemplate.execute(status -> seed());
+        if (seeded == null || seeded == 0) {
+            log.info("Campaigns table already populated, not seeding (rtb.campaigns.seed.mode=IF_EMPTY)");
+            return;
+        }
+        campaignService.evictAll();
+        log.info("Seeded {} data-driven sample campaigns ({}) in {} ms",
+                seeded, mode, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int seed() {
+        if (mode == Mode.IF_EMPTY) {
+            Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM campaigns", Long.class);
+            if (existing != null && existing > 0) {
+                return 0;
+            }
+        } else {
+            jdbcTemplate.update("DELETE FROM campaigns");
+        }
+
+        List<Campaign> campaigns = sampleCampaigns();
+        jdbcTemplate.batchUpdate(INSERT, campaigns, campaigns.size(), (statement, campaign) -> {
+            statement.setString(1, campaign.getAdvertiserId());
+            statement.setBigDecimal(2, campaign.getBudget());
+            statement.setBigDecimal(3, campaign.getBidPrice());
+            statement.setString(4, campaign.getTargetingGeo());
+            statement.setString(5, campaign.getTargetingOs());
+            statement.setString(6, campaign.getTargetingSite());
+            statement.setString(7, campaign.getTargetingAdType());
+            statement.setString(8, campaign.getTargetingDeviceCategory());
+            setInstant(statement, 9, campaign.getFlightStart());
+            setInstant(statement, 10, campaign.getFlightEnd());
+            statement.setString(11, campaign.getPacing() != null ? campaign.getPacing().name() : null);
+        });
+        return campaigns.size();
+    }
+
+    private List<Campaign> sampleCampaigns() {
+        // === NEW DATASET BASED ON MY GREAT DATA ANALYSIS ===
+        List<Campaign> campaigns = new ArrayList<>();
+        
+        // --- Top 5 Most Frequent Combos I Found ---
+        
+        // 1. (79, 187, 56) - 9499 impressions
+        campaigns.add(new Campaign("79", new BigDecimal("9000.00"), "187", "56", new BigDecimal("0.75")));
+        
+        // 2. (88, 187, 56) - 4189 impressions
+        campaigns.add(new Campaign("88", new BigDecimal("5000.00"), "187", "56", new BigDecimal("0.65")));
+        
+        // 3. (90, 187, 56) - 3486 impressions
+        campaigns.add(new Campaign("90", new BigDecimal("4000.00"), "187", "56", new BigDecimal("0.60")));
+        
+        // 4. (97, 187, 56) - 2634 impressions
+        campaigns.add(new Campaign("97", new BigDecimal("3000.00"), "187", "56", new BigDecimal("0.55")));
+        
+        // 5. (139, 187, 55) - 4362 impressions
+        campaigns.add(new Campaign("139", new BigDecimal("5000.00"), "187", "55", new BigDecimal("0.50")));
+
+        // --- Other Top Hits for Advertiser 79 I Found ---
+        
+        // 6. (79, 187, 55) - 7901 impressions
+        campaigns.add(new Campaign("79", new BigDecimal("8000.00"), "187", "55", new BigDecimal("0.70")));
+        
+        // // 7. (79, 187, 59) - 7558 impressions
+        // campaigns.add(new Campaign("79", new BigDecimal("7500.00"), "187", "59", new BigDecimal("0.68")));
+        
+        // 8. (79, 187, 58) - 6285 impressions
+        campaigns.add(new Campaign("79", new BigDecimal("6000.00"), "187", "58", new BigDecimal("0.62")));
+        
+        // 9. (79, 187, 60) - 5745 impressions
+        campaigns.add(new Campaign("79", new BigDecimal("6000.00"), "187", "60", new BigDecimal("0.61")));
+
+        // Every sample campaign flies from now for rtb.budget.sample-flight.
+        Instant flightStart = Instant.now();
+        for (Campaign campaign : campaigns) {
+            campaign.setFlight(flightStart, flightStart.plus(sampleFlight));
+            campaign.setPacing(samplePacing);
+        }
+        return campaigns;
+    }
+
+    private static void setInstant(PreparedStatement statement, int index, Instant instant) throws SQLException {
+        if (instant == null) {
+            statement.setNull(index, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else {
+            statement.setObject(index, instant.atOffset(ZoneOffset.UTC));
+        }
+    }
+}
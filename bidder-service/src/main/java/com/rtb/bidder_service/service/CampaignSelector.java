@@ -0,0 +1,93 @@
+package com.rtb.bidder_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.rtb.bidder_service.capping.FrequencyCapper;
+import com.rtb.bidder_service.model.BiddableCampaign;
+import com.rtb.bidder_service.service.CampaignIndex.AdvertiserCampaigns;
+import com.rtb.bidder_service.service.CampaignIndex.Match;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Picks which of the matching campaigns actually bid.
+ *
+ * Matches are walked in rank order (highest bid price first), so the first eligible
+ * campaign is the highest-value one and the scan stops as soon as
+ * rtb.selection.max-bids-per-impression campaigns have been picked. Within a run of equal
+ * prices the {@link TieBreaker} decides which matching campaign the scan starts at. Picks
+ * are written into a caller-owned array, so selection itself allocates nothing.
+ *
+ * A campaign is eligible while it can still bid on its budget and has not hit its
+ * frequency cap for the request's placement (see {@link FrequencyCapper}); every pick
+ * counts towards that cap.
+ */
+@Service
+public class CampaignSelector {
+
+    private final TieBreaker tieBreaker;
+    private final FrequencyCapper frequencyCapper;
+    private final int maxBidsPerImpression;
+
+    public CampaignSelector(TieBreaker tieBreaker, FrequencyCapper frequencyCapper,
+                            @Value("${rtb.selection.max-bids-per-impression:1}") int maxBidsPerImpression) {
+        if (maxBidsPerImpression < 1) {
+            throw new IllegalArgumentException("rtb.selection.max-bids-per-impression must be at least 1");
+        }
+        this.tieBreaker = tieBreaker;
+        this.frequencyCapper = frequencyCapper;
+        this.maxBidsPerImpression = maxBidsPerImpression;
+    }
+
+    public int maxBidsPerImpression() {
+        return maxBidsPerImpression;
+    }
+
+    /**
+     * Writes up to {@link #maxBidsPerImpression()} eligible campaigns for this request
+     * into picks, best first, and returns how many were written.
+     */
+    public int select(BidRequest request, Match match, BiddableCampaign[] picks) {
+        AdvertiserCampaigns campaigns = match.campaigns();
+        long placement = frequencyCapper.placementKey(request);
+        int limit = Math.min(maxBidsPerImpression, picks.length);
+        int picked = 0;
+        int first = match.nextMatch(0);
+
+        while (first >= 0 && picked < limit) {
+            int groupEnd = campaigns.groupEnd(first);
+
+            // Rotate over the matching members of this tie group only.
+            int start = first;
+            int matched = groupEnd - first > 1 ? match.countMatches(first, groupEnd) : 1;
+            if (matched > 1) {
+                for (int skip = tieBreaker.startOffset(matched); skip > 0; skip--) {
+                    start = match.nextMatch(start + 1);
+                }
+            }
+
+            for (int rank = start; rank >= 0 && rank < groupEnd && picked < limit; rank = match.nextMatch(rank + 1)) {
+                picked = consider(campaigns.get(rank), placement, picks, picked);
+            }
+            for (int rank = first; rank < start && picked < limit; rank = match.nextMatch(rank + 1)) {
+                picked = consider(campaigns.get(rank), placement, picks, picked);
+            }
+            first = match.nextMatch(groupEnd);
+        }
+        return picked;
+    }
+
+    private int consider(BiddableCampaign campaign, long placement, BiddableCampaign[] picks, int picked) {
+        if (isEligible(campaign, placement)) {
+            frequencyCapper.recordBid(campaign, placement);
+            picks[picked++] = campaign;
+        }
+        return picked;
+    }
+
+    // Constant-time checks only: a pre-computed budget flag, then a fixed number of
+    // lock-free counter reads for capped campaigns.
+    private boolean isEligible(BiddableCampaign campaign, long placement) {
+        return campaign.budget().canBid() && frequencyCapper.allows(campaign, placement);
+    }
+}
@@ -0,0 +1,54 @@
+package com.rtb.bidder_service.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Change feed for rtb.campaigns.updates.source=kafka.
+ *
+ * Whatever writes campaigns (an admin tool, a CDC connector) publishes one record per
+ * changed campaign to the compacted campaign-updates topic: key = campaign id,
+ * value = its advertiserId. Compaction keeps the latest record per campaign. The bidder
+ * re-reads the named advertisers from Postgres, so the topic only says *what* changed
+ * and Postgres stays the single source of truth.
+ *
+ * Every replica must see every update, so the group id is per pod
+ * (rtb.campaigns.updates.group-id) and consumption starts at the latest offset: this
+ * container starts with the context, before {@link WarmStart} loads the full campaign
+ * set, so nothing published after that load can be missed.
+ */
+@Component
+@ConditionalOnProperty(name = "rtb.campaigns.updates.source", havingValue = "kafka")
+public class CampaignUpdateListener {
+
+    private final CampaignIndexService campaignIndexService;
+
+    public CampaignUpdateListener(CampaignIndexService campaignIndexService) {
+        this.campaignIndexService = campaignIndexService;
+    }
+
+    // Batch mode coalesces a burst of edits to one advertiser into a single re-read.
+    @KafkaListener(topics = "${rtb.campaigns.updates.topic:campaign-updates}",
+                   groupId = "${rtb.campaigns.updates.group-id}", batch = "true",
+                   properties = {
+                       "value.deserializer=org.apache.kafka.common.serialization.StringDeserializer",
+                       "auto.offset.reset=latest"
+                   })
+    public void onCampaignUpdates(List<String> advertiserIds) {
+        Set<String> changed = new LinkedHashSet<>();
+        for (String advertiserId : advertiserIds) {
+            // Tombstones carry no advertiser; deactivation is published as a normal update.
+            if (advertiserId != null && !advertiserId.isBlank()) {
+                changed.add(advertiserId);
+            }
+        }
+        if (!changed.isEmpty()) {
+            campaignIndexService.applyChanges(changed);
+        }
+    }
+}
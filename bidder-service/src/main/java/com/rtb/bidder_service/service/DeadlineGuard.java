@@ -0,0 +1,144 @@
+package com.rtb.bidder_service.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rtb.wire.dto.BidRequest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides, before any lookup is spent on it, whether a bid request can still be answered
+ * before its deadline.
+ *
+ * A request's deadline is createdAtMillis + tmaxMillis (rtb.deadline.default-tmax-ms when
+ * the producer sent no tmax; unstamped requests have none). rtb.deadline.response-margin-ms
+ * of that is reserved for getting the bid back to the exchange. Three outcomes:
+ *
+ * - EXPIRED: the deadline has passed, typically because the request sat in a Kafka
+ *   backlog. Costs one clock read, so a pod catching up on lag skips dead auctions
+ *   almost for free.
+ * - SHED: the time left is less than a request currently takes to handle (smoothed), or
+ *   the bidder is running close to its deadlines overall. "Close" is the smoothed
+ *   completion age as a fraction of tmax (the pressure); past rtb.deadline.shed.start a
+ *   growing share of requests is shed, up to rtb.deadline.shed.max-fraction at 1.0. That
+ *   frees CPU so the rest finish in time, and because shed requests are never measured,
+ *   pressure falls again as soon as the admitted ones get faster.
+ * - ADMIT: everything else, including every request without a deadline.
+ *
+ * Ages come from the producer's wall clock, so they are only as good as NTP.
+ *
+ * Metrics: rtb.deadline.pressure and rtb.deadline.shed.probability; dropped requests are
+ * counted by BidMetrics as rtb.bid.decisions{outcome=expired|shed}.
+ */
+@Component
+public class DeadlineGuard {
+
+    public enum Admission {
+        ADMIT,
+        EXPIRED,
+        SHED
+    }
+
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final boolean enabled;
+    private final int defaultTmaxMillis;
+    private final long responseMarginMillis;
+    private final double shedStart;
+    private final double maxShedFraction;
+    private final double alpha;
+
+    // Exponentially weighted averages over admitted requests that have a deadline. Every
+    // handling thread updates them without locking; a lost update only slows the average
+    // down a little, which is cheaper than contending on every request.
+    private volatile double serviceNanos;
+    private volatile double pressure;
+
+    public DeadlineGuard(MeterRegistry meterRegistry,
+                         @Value("${rtb.deadline.enabled:true}") boolean enabled,
+                         @Value("${rtb.deadline.default-tmax-ms:0}") int defaultTmaxMillis,
+                         @Value("${rtb.deadline.response-margin-ms:10}") long responseMarginMillis,
+                         @Value("${rtb.deadline.shed.start:0.8}") double shedStart,
+                         @Value("${rtb.deadline.shed.max-fraction:0.9}") double maxShedFraction,
+                         @Value("${rtb.deadline.ewma-alpha:0.05}") double alpha) {
+        if (shedStart <= 0 || shedStart >= 1) {
+            throw new IllegalArgumentException("rtb.deadline.shed.start must be between 0 and 1");
+        }
+        if (maxShedFraction < 0 || maxShedFraction >= 1) {
+            // Below 1 so some requests are always admitted and measured, or pressure could never fall.
+            throw new IllegalArgumentException("rtb.deadline.shed.max-fraction must be at least 0 and below 1");
+        }
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("rtb.deadline.ewma-alpha must be in (0, 1]");
+        }
+        this.enabled = enabled;
+        this.defaultTmaxMillis = defaultTmaxMillis;
+        this.responseMarginMillis = responseMarginMillis;
+        this.shedStart = shedStart;
+        this.maxShedFraction = maxShedFraction;
+        this.alpha = alpha;
+
+        Gauge.builder("rtb.deadline.pressure", this, guard -> guard.pressure)
+            .description("Smoothed age of handled bid requests as a fraction of their tmax")
+            .register(meterRegistry);
+        Gauge.builder("rtb.deadline.shed.probability", this, DeadlineGuard::shedProbability)
+            .description("Share of bid requests currently shed to keep the rest within their deadline")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Epoch millis by which the request must be answered, or NO_DEADLINE.
+     */
+    public long deadlineMillis(BidRequest request) {
+        if (!enabled || request.createdAtMillis() <= 0) {
+            return NO_DEADLINE;
+        }
+        int tmax = request.tmaxMillis() > 0 ? request.tmaxMillis() : defaultTmaxMillis;
+        return tmax > 0 ? request.createdAtMillis() + tmax : NO_DEADLINE;
+    }
+
+    public Admission admit(BidRequest request, long nowMillis) {
+        long deadline = deadlineMillis(request);
+        if (deadline == NO_DEADLINE) {
+            return Admission.ADMIT;
+        }
+        long remainingMillis = deadline - responseMarginMillis - nowMillis;
+        if (remainingMillis <= 0) {
+            return Admission.EXPIRED;
+        }
+        if (remainingMillis * 1_000_000.0 < serviceNanos) {
+            return Admission.SHED;
+        }
+        double shed = shedProbability();
+        if (shed > 0 && ThreadLocalRandom.current().nextDouble() < shed) {
+            return Admission.SHED;
+        }
+        return Admission.ADMIT;
+    }
+
+    /**
+     * Feeds one admitted request's handling time and completion age into the averages.
+     */
+    public void completed(BidRequest request, long nowMillis, long handlingNanos) {
+        long deadline = deadlineMillis(request);
+        if (deadline == NO_DEADLINE) {
+            return;
+        }
+        double tmax = deadline - request.createdAtMillis();
+        double age = (nowMillis - request.createdAtMillis() + responseMarginMillis) / tmax;
+        serviceNanos += alpha * (handlingNanos - serviceNanos);
+        pressure += alpha * (age - pressure);
+    }
+
+    double shedProbability() {
+        double over = (pressure - shedStart) / (1.0 - shedStart);
+        if (over <= 0) {
+            return 0;
+        }
+        return Math.min(over, 1.0) * maxShedFraction;
+    }
+}
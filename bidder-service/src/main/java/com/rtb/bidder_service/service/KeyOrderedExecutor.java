@@ -0,0 +1,95 @@
+package com.rtb.bidder_service.service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks on a fixed set of lanes, each served by one long-lived virtual thread.
+ *
+ * Tasks with the same key always go to the same lane, so they run one at a time in the
+ * order they were submitted. Tasks without a key are spread round-robin over all lanes.
+ * Different keys can share a lane, so a slow task can delay unrelated keys on its lane
+ * but never the other lanes. Long-lived lane threads (rather than one virtual thread per
+ * task) keep the bid path's per-thread scratch buffers warm.
+ *
+ * At most maxInFlight tasks are queued or running at once: submit() blocks the caller
+ * (the Kafka consumer thread) until a slot frees up, which is the back-pressure that
+ * keeps a slow bidder from pulling an unbounded backlog into memory.
+ */
+public final class KeyOrderedExecutor implements AutoCloseable {
+
+    private final ExecutorService[] lanes;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final AtomicInteger nextLane = new AtomicInteger();
+
+    public KeyOrderedExecutor(int laneCount, int maxInFlight, String name) {
+        if (laneCount < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("lanes and max in-flight must be positive");
+        }
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor(Thread.ofVirtual().name(name + "-" + i).factory());
+        }
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Queues task behind earlier tasks with the same key (any lane if key is null).
+     * Blocks while maxInFlight tasks are outstanding.
+     */
+    public void submit(Object key, Runnable task) throws InterruptedException {
+        inFlight.acquire();
+        int lane = key != null
+                ? Math.floorMod(spread(key.hashCode()), lanes.length)
+                : Math.floorMod(nextLane.getAndIncrement(), lanes.length);
+        try {
+            lanes[lane].execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    public int inFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    /**
+     * Lets every queued task finish, waiting up to timeoutMs.
+     */
+    public boolean awaitTermination(long timeoutMs) throws InterruptedException {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (ExecutorService lane : lanes) {
+            if (!lane.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    // String hash codes of sequential ids differ mostly in the low bits; mix before the modulo.
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
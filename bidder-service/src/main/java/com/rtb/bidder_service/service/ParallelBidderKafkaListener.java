@@ -0,0 +1,106 @@
+package com.rtb.bidder_service.service;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import com.rtb.wire.dto.BidRequest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Parallel mode (rtb.listener.mode=parallel): more threads than partitions.
+ *
+ * In record mode each consumer thread decides its partition's requests one at a time,
+ * so a pod can use at most one core per partition it owns and one slow request holds up
+ * everything behind it. Here the consumer thread only dispatches: each polled record is
+ * handed to a {@link KeyOrderedExecutor} lane (rtb.parallel.lanes long-lived virtual
+ * threads). rtb.parallel.ordering picks what stays in order: nothing (NONE, the default,
+ * since bid requests are independent), the record key or the advertiser; requests with
+ * the same ordering key run one after another in partition order.
+ *
+ * Offsets: the listener gets a whole poll (up to rtb.parallel.max-poll-records) and
+ * returns only when every record in it has finished, in whatever order they finished.
+ * The container then commits the poll. So an offset is never committed before its record
+ * and all earlier ones are done, and because the consumer thread is not polling while
+ * work is outstanding, a rebalance can never hand a partition away mid-poll. (Spring's
+ * asyncAcks does per-record out-of-order acks, but it pauses for the previous poll
+ * anyway and can leave a partition paused across a rebalance.)
+ *
+ * Back-pressure: at most rtb.parallel.max-in-flight requests are queued or running per
+ * pod across all consumer threads; past that, dispatch blocks until one finishes.
+ */
+@Service
+@ConditionalOnProperty(name = "rtb.listener.mode", havingValue = "parallel")
+public class ParallelBidderKafkaListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelBidderKafkaListener.class);
+
+    private final BidRequestHandler handler;
+    private final ParallelOrdering ordering;
+    private final KeyOrderedExecutor lanes;
+
+    public ParallelBidderKafkaListener(BidRequestHandler handler,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${rtb.parallel.ordering:NONE}") ParallelOrdering ordering,
+                                       @Value("${rtb.parallel.lanes:64}") int laneCount,
+                                       @Value("${rtb.parallel.max-in-flight:1024}") int maxInFlight) {
+        this.handler = handler;
+        this.ordering = ordering;
+        this.lanes = new KeyOrderedExecutor(laneCount, maxInFlight, "bid-lane");
+
+        Gauge.builder("rtb.listener.parallel.in-flight", lanes, KeyOrderedExecutor::inFlight)
+            .description("Bid requests dispatched to lanes and not finished yet")
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(id = BidderKafkaListener.LISTENER_ID, autoStartup = "false",
+                   topics = BidderKafkaListener.REQUEST_TOPIC, groupId = "${spring.kafka.consumer.group-id}",
+                   concurrency = "${rtb.listener.concurrency:3}", containerFactory = "parallelListenerContainerFactory")
+    public void handleBidRequests(List<ConsumerRecord<String, BidRequest>> records) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(records.size());
+        for (ConsumerRecord<String, BidRequest> record : records) {
+            BidRequest request = record.value();
+            if (request == null) {
+                done.countDown();
+                continue;
+            }
+            lanes.submit(orderingKey(record, request), () -> {
+                try {
+                    handler.handle(request);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        // The poll is committed when this returns, so wait for its slowest request.
+        done.await();
+    }
+
+    private Object orderingKey(ConsumerRecord<String, BidRequest> record, BidRequest request) {
+        return switch (ordering) {
+            case NONE -> null;
+            case RECORD_KEY -> record.key();
+            case ADVERTISER -> request.advertiserId();
+        };
+    }
+
+    // Containers are stopped before beans are destroyed, and a container only stops
+    // between polls, so the lanes are normally idle by now.
+    @PreDestroy
+    public void drain() throws InterruptedException {
+        if (!lanes.awaitTermination(5_000)) {
+            log.warn("Parallel bid lanes did not drain within 5 s; {} requests abandoned", lanes.inFlight());
+        }
+        lanes.close();
+    }
+}
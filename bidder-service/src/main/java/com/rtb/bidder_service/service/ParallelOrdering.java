@@ -0,0 +1,10 @@
+package com.rtb.bidder_service.service;
+
+/**
+ * Which requests rtb.listener.mode=parallel keeps in order (see ParallelBidderKafkaListener).
+ */
+public enum ParallelOrdering {
+    NONE,       // any order; requests are spread over every lane
+    RECORD_KEY, // in partition order per Kafka record key (the impression id)
+    ADVERTISER  // in partition order per advertiser
+}
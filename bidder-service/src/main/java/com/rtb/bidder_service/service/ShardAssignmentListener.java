@@ -0,0 +1,103 @@
+package com.rtb.bidder_service.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the campaign index sharded to this pod's bid-requests partitions
+ * (rtb.sharding.enabled=true).
+ *
+ * Spring Boot installs this on every listener container it configures, so it sees the
+ * assignments of all of the pod's consumer threads (and ignores the other topics).
+ * - Assigned: runs on the consumer thread before the first poll of the new partitions
+ *   returns, so if they bring advertisers the index does not hold yet, the index is
+ *   rebuilt for the pod's whole assignment right here and no request of theirs is
+ *   decided against a missing shard.
+ * - Revoked or lost: the partitions are forgotten but nothing is rebuilt. Extra
+ *   advertisers are harmless, and the next scheduled refresh trims them. That keeps
+ *   a cooperative rebalance, which revokes and reassigns in quick succession, from
+ *   costing two full reloads.
+ * If the rebuild fails, the new shard still applies from the next successful refresh.
+ *
+ * Sharding refuses to start with rtb.budget.charge-on=WIN (see the constructor).
+ */
+@Component
+@ConditionalOnProperty(name = "rtb.sharding.enabled", havingValue = "true")
+public class ShardAssignmentListener implements ConsumerAwareRebalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardAssignmentListener.class);
+
+    private final CampaignIndexService campaignIndexService;
+    // Across all of the pod's consumer threads. The callbacks are synchronized so each one
+    // reshards from the assignment as it stands, never from another thread's older copy.
+    private final Set<Integer> assigned = new HashSet<>();
+
+    public ShardAssignmentListener(CampaignIndexService campaignIndexService,
+                                   @Value("${rtb.budget.charge-on:BID}") String chargeOn) {
+        this.campaignIndexService = campaignIndexService;
+        // Win notices are consumed by one shared group, not by advertiser, so a sharded pod
+        // would receive notices for campaigns it has no budget for and drop the charge.
+        if ("WIN".equalsIgnoreCase(chargeOn)) {
+            throw new IllegalStateException("rtb.sharding.enabled=true needs rtb.budget.charge-on=BID: "
+                    + "win notices are not partitioned by advertiser");
+        }
+    }
+
+    @Override
+    public synchronized void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        List<Integer> added = requestPartitions(partitions);
+        if (added.isEmpty()) {
+            return;
+        }
+        assigned.addAll(added);
+        int partitionCount = consumer.partitionsFor(BidderKafkaListener.REQUEST_TOPIC).size();
+        AdvertiserShard shard = AdvertiserShard.of(partitionCount, assigned);
+        if (campaignIndexService.shard().covers(partitionCount, added)) {
+            campaignIndexService.reshard(shard, false);
+            return;
+        }
+        try {
+            campaignIndexService.reshard(shard, true);
+        } catch (Exception e) {
+            log.error("Could not load the campaign shard for {}; it loads with the next refresh", shard, e);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        forget(consumer, partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        forget(consumer, partitions);
+    }
+
+    private synchronized void forget(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        List<Integer> removed = requestPartitions(partitions);
+        if (removed.isEmpty()) {
+            return;
+        }
+        assigned.removeAll(removed);
+        int partitionCount = consumer.partitionsFor(BidderKafkaListener.REQUEST_TOPIC).size();
+        campaignIndexService.reshard(AdvertiserShard.of(partitionCount, assigned), false);
+    }
+
+    private static List<Integer> requestPartitions(Collection<TopicPartition> partitions) {
+        return partitions.stream()
+            .filter(partition -> BidderKafkaListener.REQUEST_TOPIC.equals(partition.topic()))
+            .map(TopicPartition::partition)
+            .toList();
+    }
+}
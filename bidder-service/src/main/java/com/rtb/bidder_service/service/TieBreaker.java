@@ -0,0 +1,27 @@
+package com.rtb.bidder_service.service;
+
+import java.util.Comparator;
+
+import com.rtb.bidder_service.model.BiddableCampaign;
+
+/**
+ * Decides between eligible campaigns that bid the same price.
+ *
+ * Two hooks, so a strategy costs nothing on the bid path unless it needs to:
+ * - {@link #order()} ranks equal-price campaigns once, when the index is built.
+ * - {@link #startOffset(int)} may rotate where the scan of an equal-price group starts,
+ *   per request, for strategies that must vary (e.g. random). It must not allocate.
+ *
+ * Built-in strategies are in {@link TieBreakers}; defining a TieBreaker bean replaces them.
+ */
+public interface TieBreaker {
+
+    Comparator<BiddableCampaign> order();
+
+    /**
+     * Offset in [0, groupSize) at which to start scanning a group of equal-price campaigns.
+     */
+    default int startOffset(int groupSize) {
+        return 0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.rtb.bidder_service.service;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.rtb.bidder_service.model.BiddableCampaign;
+
+/**
+ * Built-in tie-breaking strategies, selected with rtb.selection.tie-breaker.
+ */
+public enum TieBreakers implements TieBreaker {
+
+    /**
+     * Oldest campaign first. Deterministic, so identical input always gives identical bids.
+     */
+    LOWEST_ID {
+        @Override
+        public Comparator<BiddableCampaign> order() {
+            return Comparator.comparingLong(BiddableCampaign::id);
+        }
+    },
+
+    /**
+     * Largest total budget first, then oldest.
+     */
+    HIGHEST_BUDGET {
+        @Override
+        public Comparator<BiddableCampaign> order() {
+            return Comparator.comparingLong(BiddableCampaign::budgetMicros).reversed()
+                    .thenComparingLong(BiddableCampaign::id);
+        }
+    },
+
+    /**
+     * Uniformly random among the tied campaigns, so equal bids share traffic.
+     */
+    RANDOM {
+        @Override
+        public Comparator<BiddableCampaign> order() {
+            return LOWEST_ID.order();
+        }
+
+        @Override
+        public int startOffset(int groupSize) {
+            return ThreadLocalRandom.current().nextInt(groupSize);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.rtb.bidder_service.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the full active campaign set before the bid-requests listener starts consuming.
+ *
+ * The bid listeners (and the win notice listener, which needs every budget registered)
+ * are declared with autoStartup = "false", so nothing is consumed against an empty index.
+ * Once the first full refresh succeeds, this starts them. If Postgres is not reachable
+ * yet, the load is retried every rtb.index.warmup-retry-ms and the pod simply does not
+ * consume until it succeeds.
+ *
+ * Readiness follows the same gate: Spring Boot only publishes ACCEPTING_TRAFFIC (and
+ * /actuator/health/readiness only reports UP) once every ApplicationReadyEvent listener
+ * has returned, so a pod is not ready until the index is loaded and the listeners run.
+ */
+@Component
+public class WarmStart {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmStart.class);
+
+    private final CampaignIndexService campaignIndexService;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final long retryMs;
+
+    public WarmStart(CampaignIndexService campaignIndexService, KafkaListenerEndpointRegistry listenerRegistry,
+                     @Value("${rtb.index.warmup-retry-ms:5000}") long retryMs) {
+        this.campaignIndexService = campaignIndexService;
+        this.listenerRegistry = listenerRegistry;
+        this.retryMs = retryMs;
+    }
+
+    // CommandLineRunners (CampaignSeeder) finish before ApplicationReadyEvent,
+    // so the first build always sees the freshly seeded campaigns.
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() throws InterruptedException {
+        long start = System.nanoTime();
+        while (true) {
+            try {
+                campaignIndexService.refresh();
+                break;
+            } catch (Exception e) {
+                log.warn("Warm start could not load campaigns, retrying in {} ms", retryMs, e);
+                Thread.sleep(retryMs);
+            }
+        }
+
+        for (String id : new String[] {WinNoticeListener.LISTENER_ID, BidderKafkaListener.LISTENER_ID}) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+            if (container != null && !container.isRunning()) {
+                container.start();
+            }
+        }
+        log.info("Warm start complete in {} ms, consuming {}",
+                (System.nanoTime() - start) / 1_000_000, BidderKafkaListener.REQUEST_TOPIC);
+    }
+}
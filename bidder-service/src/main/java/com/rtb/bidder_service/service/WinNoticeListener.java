@@ -0,0 +1,155 @@
+package com.rtb.bidder_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.rtb.bidder_service.budget.BudgetManager;
+import com.rtb.bidder_service.budget.CampaignBudget;
+import com.rtb.bidder_service.budget.RecentImpressions;
+import com.rtb.bidder_service.model.Money;
+import com.rtb.wire.dto.WinNotice;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Charges campaign budgets from the auction-service's win notices (rtb.budget.charge-on=WIN).
+ *
+ * Every bidder replica joins the same consumer group, so each notice is charged exactly
+ * once, by whichever replica reads it; BudgetReconciler then shares that spend with the
+ * other replicas as usual. The container starts with the bid listener, after
+ * {@link WarmStart} has registered every campaign's budget, so early notices do not find
+ * an empty BudgetManager.
+ *
+ * Kafka delivers at least once, so a retried batch or a partition handed to another
+ * replica after a rebalance can bring the same notice twice. Each impression is charged
+ * once:
+ * - Every replica remembers the impressions it charged recently ({@link RecentImpressions},
+ *   rtb.budget.win-notices.dedup-capacity) and drops notices it has already seen.
+ * - With rtb.budget.redis-sync.enabled, a notice is only charged by the replica that
+ *   claims rtb:win:{impressionId} (SET NX, expiring after dedup-ttl). The claims for a
+ *   batch go out in one pipeline, so a redelivery to a different replica is caught too.
+ *   If Redis is unreachable the batch is charged on the local check alone.
+ *
+ * Metrics: rtb.budget.win.notices{result=charged|duplicate|unknown_campaign}.
+ */
+@Component
+@ConditionalOnProperty(name = "rtb.budget.charge-on", havingValue = "WIN")
+public class WinNoticeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(WinNoticeListener.class);
+    static final String LISTENER_ID = "win-notices";
+    static final String REDIS_KEY_PREFIX = "rtb:win:";
+    private static final byte[] ONE = {'1'};
+
+    private final BudgetManager budgetManager;
+    private final RecentImpressions recentImpressions;
+    private final StringRedisTemplate redis;
+    private final long dedupTtlSeconds;
+    private final Counter charged;
+    private final Counter duplicate;
+    private final Counter unknownCampaign;
+
+    public WinNoticeListener(BudgetManager budgetManager, MeterRegistry meterRegistry,
+                             ObjectProvider<StringRedisTemplate> redis,
+                             @Value("${rtb.budget.redis-sync.enabled:false}") boolean redisSync,
+                             @Value("${rtb.budget.win-notices.dedup-capacity:1048576}") int dedupCapacity,
+                             @Value("${rtb.budget.win-notices.dedup-ttl-seconds:3600}") long dedupTtlSeconds) {
+        this.budgetManager = budgetManager;
+        this.recentImpressions = new RecentImpressions(dedupCapacity);
+        this.redis = redisSync ? redis.getIfAvailable() : null;
+        this.dedupTtlSeconds = dedupTtlSeconds;
+        this.charged = Counter.builder("rtb.budget.win.notices").tag("result", "charged")
+            .description("Win notices charged to a campaign budget")
+            .register(meterRegistry);
+        this.duplicate = Counter.builder("rtb.budget.win.notices").tag("result", "duplicate")
+            .description("Redelivered win notices for impressions already charged")
+            .register(meterRegistry);
+        this.unknownCampaign = Counter.builder("rtb.budget.win.notices").tag("result", "unknown_campaign")
+            .description("Win notices for campaigns this bidder has no budget for")
+            .register(meterRegistry);
+    }
+
+    @KafkaListener(id = LISTENER_ID, autoStartup = "false",
+                   topics = "${rtb.budget.win-notices.topic:win-notices}",
+                   groupId = "${rtb.budget.win-notices.group-id:bidder-win-notices}", batch = "true",
+                   properties = "value.deserializer=com.rtb.bidder_service.codec.WinNoticeDeserializer")
+    public synchronized void onWinNotices(List<WinNotice> notices) {
+        List<WinNotice> firstSeen = new ArrayList<>(notices.size());
+        for (WinNotice notice : notices) {
+            if (notice == null || notice.impressionId() == null) {
+                continue;
+            }
+            if (recentImpressions.add(notice.impressionId())) {
+                firstSeen.add(notice);
+            } else {
+                duplicate.increment();
+            }
+        }
+        if (redis != null && !firstSeen.isEmpty()) {
+            firstSeen = claimed(firstSeen);
+        }
+
+        for (WinNotice notice : firstSeen) {
+            CampaignBudget budget = budget(notice.campaignId());
+            if (budget == null) {
+                // Deleted and reconciled away since it bid; nothing left to charge.
+                unknownCampaign.increment();
+                log.debug("Win notice for unknown campaign {} on impression {}", notice.campaignId(), notice.impressionId());
+                continue;
+            }
+            // Prices are CPM; one notice is one impression.
+            budget.recordSpend(Money.cpmToImpressionMicros(notice.clearingPriceMicros()));
+            charged.increment();
+        }
+    }
+
+    // The notices whose impression this replica claimed first, across all replicas.
+    private List<WinNotice> claimed(List<WinNotice> notices) {
+        List<Object> results;
+        try {
+            results = redis.executePipelined((RedisCallback<Object>) connection -> {
+                for (WinNotice notice : notices) {
+                    connection.stringCommands().set(
+                        (REDIS_KEY_PREFIX + notice.impressionId()).getBytes(StandardCharsets.UTF_8),
+                        ONE, Expiration.from(dedupTtlSeconds, TimeUnit.SECONDS), SetOption.ifAbsent());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Could not claim win notices in Redis, charging on the local check only", e);
+            return notices;
+        }
+        List<WinNotice> claimed = new ArrayList<>(notices.size());
+        for (int i = 0; i < notices.size(); i++) {
+            if (Boolean.FALSE.equals(results.get(i))) {
+                duplicate.increment(); // another replica got there first
+            } else {
+                claimed.add(notices.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    private CampaignBudget budget(String campaignId) {
+        try {
+            return campaignId != null ? budgetManager.get(Long.parseLong(campaignId)) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.rtb.bidder_service.budget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.model.Money;
+import com.rtb.bidder_service.model.PacingMode;
+import com.rtb.bidder_service.repository.CampaignRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BudgetReconcilerTests {
+
+	// Stands in for Redis: PUSH_SPEND, MGET and SETNX against one map.
+	private final Map<String, String> redisData = new HashMap<>();
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void firstFlushSeedsTheSharedTotalWithHistoricalSpend() {
+		StringRedisTemplate redis = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> values = mock(ValueOperations.class);
+		when(redis.opsForValue()).thenReturn(values);
+		when(redis.execute(eq(BudgetReconciler.PUSH_SPEND), anyList(), any(), any())).thenAnswer(invocation -> {
+			String key = invocation.<List<String>>getArgument(1).get(0);
+			long settled = Long.parseLong(invocation.getArgument(2));
+			long delta = Long.parseLong(invocation.getArgument(3));
+			long total = redisData.containsKey(key) ? Long.parseLong(redisData.get(key)) + delta : settled;
+			redisData.put(key, String.valueOf(total));
+			return total;
+		});
+		when(values.multiGet(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+				.map(redisData::get).toList());
+		when(values.setIfAbsent(anyString(), anyString()))
+				.thenAnswer(invocation -> redisData.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+		ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(redis);
+
+		BudgetManager budgets = new BudgetManager(new SimpleMeterRegistry(), PacingMode.ASAP);
+		Campaign campaign = new Campaign("79", new BigDecimal("1000.00"), "187", "56", new BigDecimal("0.50"));
+		ReflectionTestUtils.setField(campaign, "id", 1L);
+		ReflectionTestUtils.setField(campaign, "spent", new BigDecimal("400.00"));
+		CampaignBudget budget = budgets.register(campaign);
+		BudgetReconciler reconciler = new BudgetReconciler(budgets, mock(CampaignRepository.class), provider, true);
+
+		budget.recordSpend(Money.toMicros(new BigDecimal("1.00")));
+		reconciler.reconcile();
+
+		long expected = Money.toMicros(new BigDecimal("401.00"));
+		assertThat(budget.spendMicros()).isEqualTo(expected);
+		assertThat(redisData).containsEntry(BudgetReconciler.REDIS_KEY_PREFIX + 1, String.valueOf(expected));
+
+		// A later flush only adds its delta.
+		budget.recordSpend(Money.toMicros(new BigDecimal("1.00")));
+		reconciler.reconcile();
+		assertThat(budget.spendMicros()).isEqualTo(Money.toMicros(new BigDecimal("402.00")));
+	}
+}
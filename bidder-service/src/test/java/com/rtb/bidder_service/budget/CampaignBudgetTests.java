@@ -0,0 +1,65 @@
+package com.rtb.bidder_service.budget;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.rtb.bidder_service.model.PacingMode;
+
+class CampaignBudgetTests {
+
+	private static final long START = 1_000_000L;
+	private static final long END = START + 1_000L;
+
+	@Test
+	void asapBidsUntilBudgetIsSpent() {
+		CampaignBudget budget = new CampaignBudget(1L, 0L);
+		budget.configure(1_000L, START, END, PacingMode.ASAP);
+
+		budget.evaluate(START);
+		assertThat(budget.canBid()).isTrue();
+
+		budget.recordSpend(1_000L);
+		budget.evaluate(START + 1);
+		assertThat(budget.canBid()).isFalse();
+	}
+
+	@Test
+	void evenPacingReleasesBudgetLinearly() {
+		CampaignBudget budget = new CampaignBudget(1L, 0L);
+		budget.configure(1_000L, START, END, PacingMode.EVEN);
+
+		assertThat(budget.allowedSpendMicros(START + 250)).isEqualTo(250L);
+
+		budget.recordSpend(300L);
+		budget.evaluate(START + 250);
+		assertThat(budget.canBid()).isFalse();
+
+		// Catches up with the curve later in the flight.
+		budget.evaluate(START + 500);
+		assertThat(budget.canBid()).isTrue();
+	}
+
+	@Test
+	void outsideFlightNeverBids() {
+		CampaignBudget budget = new CampaignBudget(1L, 0L);
+		budget.configure(1_000L, START, END, PacingMode.ASAP);
+
+		budget.evaluate(START - 1);
+		assertThat(budget.canBid()).isFalse();
+		budget.evaluate(END);
+		assertThat(budget.canBid()).isFalse();
+	}
+
+	@Test
+	void drainingPendingSpendKeepsTheTotal() {
+		CampaignBudget budget = new CampaignBudget(1L, 100L);
+		budget.recordSpend(40L);
+
+		long delta = budget.drainPendingSpend();
+		budget.addSettled(delta);
+
+		assertThat(delta).isEqualTo(40L);
+		assertThat(budget.spendMicros()).isEqualTo(140L);
+	}
+}
@@ -0,0 +1,105 @@
+package com.rtb.bidder_service.capping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rtb.bidder_service.budget.CampaignBudget;
+import com.rtb.bidder_service.model.BiddableCampaign;
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.wire.dto.BidRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FrequencyCapperTests {
+
+	// On a bucket boundary for one-second buckets.
+	private static final long NOW = 1_700_000_000_000L;
+
+	@Test
+	void countsSlideOutOfTheWindowBucketByBucket() {
+		for (SlidingWindowCounter counter : new SlidingWindowCounter[] {
+				new ExactWindowCounter(Duration.ofSeconds(10), 10, 1024, NOW),
+				new CountMinWindowCounter(Duration.ofSeconds(10), 10, 1024, 4, NOW) }) {
+			counter.increment(42L, NOW);
+			counter.increment(42L, NOW);
+			advance(counter, NOW + 5_000);
+			counter.increment(42L, NOW + 5_000);
+
+			assertThat(counter.count(42L, NOW + 5_000)).isEqualTo(3);
+			assertThat(counter.count(7L, NOW + 5_000)).isZero();
+			// The first bucket leaves the window after ten seconds, the second after fifteen.
+			advance(counter, NOW + 10_000);
+			assertThat(counter.count(42L, NOW + 10_000)).isEqualTo(1);
+			advance(counter, NOW + 15_000);
+			assertThat(counter.count(42L, NOW + 15_000)).isZero();
+		}
+	}
+
+	@Test
+	void sketchNeverUndercounts() {
+		CountMinWindowCounter sketch = new CountMinWindowCounter(Duration.ofSeconds(10), 10, 256, 4, NOW);
+		Random random = new Random(7);
+		int[] truth = new int[2_000];
+		for (int i = 0; i < 20_000; i++) {
+			int key = random.nextInt(truth.length);
+			truth[key]++;
+			sketch.increment(FrequencyCapper.key(campaign(key, null), 99L), NOW);
+		}
+
+		for (int key = 0; key < truth.length; key++) {
+			assertThat(sketch.count(FrequencyCapper.key(campaign(key, null), 99L), NOW)).isGreaterThanOrEqualTo(truth[key]);
+		}
+	}
+
+	@Test
+	void exactTableCountsWhatDoesNotFit() {
+		ExactWindowCounter exact = new ExactWindowCounter(Duration.ofSeconds(10), 10, 16, NOW);
+		for (long key = 1; key <= 40; key++) {
+			exact.increment(FrequencyCapper.key(campaign(key, null), 1L), NOW);
+		}
+
+		assertThat(exact.overflows()).isEqualTo(24);
+	}
+
+	@Test
+	void campaignIsSkippedOnceItHitsItsCapOnAPlacement() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		FrequencyCapper capper = new FrequencyCapper(registry, CappingMode.EXACT, Duration.ofMinutes(10), 10, 0,
+				1024, 1024, 4);
+		BiddableCampaign capped = campaign(1L, 2);
+		BiddableCampaign uncapped = campaign(2L, null);
+		long mobile = capper.placementKey(new BidRequest("imp-1", "342", "17", "187", "2", "79", "56"));
+		long desktop = capper.placementKey(new BidRequest("imp-2", "342", "17", "187", "1", "79", "56"));
+
+		for (int bid = 0; bid < 2; bid++) {
+			assertThat(capper.allows(capped, mobile)).isTrue();
+			capper.recordBid(capped, mobile);
+			capper.recordBid(uncapped, mobile);
+		}
+
+		assertThat(capper.allows(capped, mobile)).isFalse();
+		assertThat(capper.allows(capped, desktop)).isTrue();
+		assertThat(capper.allows(uncapped, mobile)).isTrue();
+		assertThat(registry.get("rtb.capping.checks").tag("result", "capped").counter().count()).isEqualTo(1.0);
+	}
+
+	private static void advance(SlidingWindowCounter counter, long nowMillis) {
+		// What the scheduler tick does between buckets.
+		for (long t = NOW; t <= nowMillis; t += counter.bucketMillis()) {
+			counter.rotate(t);
+		}
+	}
+
+	private static BiddableCampaign campaign(long id, Integer frequencyCap) {
+		Campaign campaign = new Campaign("79", new BigDecimal("1000.00"), "187", "56", new BigDecimal("0.50"));
+		ReflectionTestUtils.setField(campaign, "id", id);
+		campaign.setFrequencyCap(frequencyCap);
+		return BiddableCampaign.from(campaign, CampaignBudget.unlimited(id));
+	}
+}
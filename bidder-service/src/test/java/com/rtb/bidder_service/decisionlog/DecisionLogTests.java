@@ -0,0 +1,95 @@
+package com.rtb.bidder_service.decisionlog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DecisionLogTests {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void ringBufferDropsInsteadOfBlockingWhenFull() {
+		DecisionRingBuffer buffer = new DecisionRingBuffer(4);
+		for (int i = 0; i < 4; i++) {
+			assertThat(buffer.offer(i, "imp-" + i, "79", null, DecisionOutcome.NO_BID, 0)).isTrue();
+		}
+		assertThat(buffer.offer(4, "imp-4", "79", null, DecisionOutcome.NO_BID, 0)).isFalse();
+		assertThat(buffer.size()).isEqualTo(4);
+
+		List<String> drained = new ArrayList<>();
+		assertThat(buffer.drain(record -> drained.add(record.impressionId), 10)).isEqualTo(4);
+		assertThat(drained).containsExactly("imp-0", "imp-1", "imp-2", "imp-3");
+		assertThat(buffer.size()).isZero();
+		assertThat(buffer.offer(5, "imp-5", "79", null, DecisionOutcome.NO_BID, 0)).isTrue();
+	}
+
+	@Test
+	void ringBufferKeepsEveryRecordFromConcurrentProducers() throws Exception {
+		DecisionRingBuffer buffer = new DecisionRingBuffer(1 << 16);
+		int producers = 4;
+		int perProducer = 10_000;
+		CountDownLatch go = new CountDownLatch(1);
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < producers; p++) {
+			int producer = p;
+			threads.add(Thread.ofPlatform().start(() -> {
+				try {
+					go.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				for (int i = 0; i < perProducer; i++) {
+					buffer.offer(i, producer + "-" + i, "79", null, DecisionOutcome.BID, 0);
+				}
+			}));
+		}
+		go.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Set<String> seen = new HashSet<>();
+		buffer.drain(record -> seen.add(record.impressionId), Integer.MAX_VALUE);
+		assertThat(seen).hasSize(producers * perProducer);
+	}
+
+	@Test
+	void writesSampledDecisionsAsJsonLinesAndRotates() throws Exception {
+		Path file = dir.resolve("decisions.jsonl");
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		DecisionLog decisionLog = new DecisionLog(registry, true, file, 1024, 200, 2, 1.0, 0.0, 1.0, 0.0, 0.0);
+
+		decisionLog.record("imp-1", "79", "17", DecisionOutcome.BID, 42_000);
+		decisionLog.record("imp-2", "79", null, DecisionOutcome.NO_BID, 1_000);
+		for (int i = 0; i < 10; i++) {
+			decisionLog.record("imp-\"" + i, "88", "4", DecisionOutcome.BID, 1_000);
+		}
+		decisionLog.destroy();
+
+		List<String> lines = new ArrayList<>();
+		for (Path path : List.of(file.resolveSibling("decisions.jsonl.2"), file.resolveSibling("decisions.jsonl.1"), file)) {
+			if (Files.exists(path)) {
+				lines.addAll(Files.readAllLines(path));
+			}
+		}
+		assertThat(Files.exists(file.resolveSibling("decisions.jsonl.1"))).isTrue();
+		assertThat(Files.exists(file.resolveSibling("decisions.jsonl.3"))).isFalse();
+		assertThat(lines).noneMatch(line -> line.contains("imp-2"));
+		assertThat(lines).allMatch(line -> line.startsWith("{\"ts\":") && line.endsWith("}"));
+		assertThat(lines).last().asString().contains("\"imp\":\"imp-\\\"9\"", "\"adv\":\"88\"", "\"outcome\":\"BID\"");
+		assertThat(registry.get("rtb.decision.log.records").tag("result", "written").counter().count()).isEqualTo(11.0);
+	}
+}
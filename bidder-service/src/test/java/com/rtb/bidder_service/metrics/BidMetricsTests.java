@@ -0,0 +1,45 @@
+package com.rtb.bidder_service.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.rtb.bidder_service.decisionlog.DecisionOutcome;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BidMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	void advertisersPastTheCapShareOneTag() {
+		BidMetrics metrics = new BidMetrics(registry, 1, 2);
+
+		metrics.recordDecision("79", DecisionOutcome.BID);
+		metrics.recordDecision("80", DecisionOutcome.NO_BID);
+		metrics.recordDecision("81", DecisionOutcome.BID);
+		metrics.recordDecision("82", DecisionOutcome.BID);
+		metrics.recordDecision("79", DecisionOutcome.BID);
+
+		assertThat(decisions("79", "bid")).isEqualTo(2.0);
+		assertThat(decisions("80", "no_bid")).isEqualTo(1.0);
+		assertThat(decisions(BidMetrics.OTHER_ADVERTISERS, "bid")).isEqualTo(2.0);
+		assertThat(registry.find("rtb.bid.decisions").tag("advertiser", "81").counter()).isNull();
+	}
+
+	@Test
+	void unstampedAndFutureRequestsAreNotTimed() {
+		BidMetrics metrics = new BidMetrics(registry, 1, 2);
+
+		metrics.recordEndToEnd(0L);
+		metrics.recordEndToEnd(System.currentTimeMillis() + 60_000);
+		metrics.recordEndToEnd(System.currentTimeMillis() - 5);
+
+		assertThat(registry.get("rtb.bid.e2e.latency").timer().count()).isEqualTo(1);
+	}
+
+	private double decisions(String advertiser, String outcome) {
+		return registry.get("rtb.bid.decisions").tag("advertiser", advertiser).tag("outcome", outcome).counter().count();
+	}
+}
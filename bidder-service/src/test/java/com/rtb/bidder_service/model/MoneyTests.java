@@ -0,0 +1,52 @@
+package com.rtb.bidder_service.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+class MoneyTests {
+
+	@Test
+	void convertsUpToSixDecimalsExactly() {
+		assertThat(Money.toMicros(new BigDecimal("0.75"))).isEqualTo(750_000L);
+		assertThat(Money.toMicros(new BigDecimal("9000.00"))).isEqualTo(9_000_000_000L);
+		assertThat(Money.toMicros(new BigDecimal("0.000001"))).isEqualTo(1L);
+		assertThat(Money.toMicros(new BigDecimal("-1.5"))).isEqualTo(-1_500_000L);
+	}
+
+	@Test
+	void roundTripIsExact() {
+		for (String amount : new String[] {"0", "0.01", "0.75", "123456.789012", "-42.000001"}) {
+			BigDecimal value = new BigDecimal(amount);
+			assertThat(Money.fromMicros(Money.toMicros(value))).isEqualByComparingTo(value);
+		}
+		assertThat(Money.fromMicros(750_000L)).isEqualTo(new BigDecimal("0.750000"));
+	}
+
+	@Test
+	void roundsSubMicroAmountsHalfEven() {
+		assertThat(Money.toMicros(new BigDecimal("0.0000005"))).isEqualTo(0L);
+		assertThat(Money.toMicros(new BigDecimal("0.0000015"))).isEqualTo(2L);
+		assertThat(Money.toMicros(new BigDecimal("0.00000151"))).isEqualTo(2L);
+		assertThat(Money.toMicros(new BigDecimal("0.0000025"))).isEqualTo(2L);
+		assertThat(Money.toMicros(new BigDecimal("-0.0000015"))).isEqualTo(-2L);
+	}
+
+	@Test
+	void rejectsNullAndOverflow() {
+		assertThatThrownBy(() -> Money.toMicros(null)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> Money.toMicros(new BigDecimal("10000000000000"))).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void cpmToImpressionRoundsHalfEven() {
+		assertThat(Money.cpmToImpressionMicros(750_000L)).isEqualTo(750L);
+		assertThat(Money.cpmToImpressionMicros(1_500L)).isEqualTo(2L);
+		assertThat(Money.cpmToImpressionMicros(2_500L)).isEqualTo(2L);
+		assertThat(Money.cpmToImpressionMicros(2_501L)).isEqualTo(3L);
+		assertThat(Money.cpmToImpressionMicros(-1_500L)).isEqualTo(-2L);
+	}
+}
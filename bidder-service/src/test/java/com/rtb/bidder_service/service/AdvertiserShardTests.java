@@ -0,0 +1,38 @@
+package com.rtb.bidder_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.kafka.clients.producer.internals.BuiltInPartitioner;
+import org.junit.jupiter.api.Test;
+
+class AdvertiserShardTests {
+
+	@Test
+	void advertisersMapToTheSamePartitionAsKeyingByAdvertiserId() {
+		for (String advertiserId : List.of("79", "84", "1000", "adv-ü")) {
+			int expected = BuiltInPartitioner.partitionForKey(advertiserId.getBytes(StandardCharsets.UTF_8), 6);
+			assertThat(AdvertiserShard.partitionFor(advertiserId, 6)).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	void shardOwnsOnlyItsPartitionsAdvertisers() {
+		int partition = AdvertiserShard.partitionFor("79", 3);
+		AdvertiserShard shard = AdvertiserShard.of(3, List.of(partition));
+		AdvertiserShard others = AdvertiserShard.of(3, List.of((partition + 1) % 3, (partition + 2) % 3));
+
+		assertThat(shard.owns("79")).isTrue();
+		assertThat(others.owns("79")).isFalse();
+		assertThat(shard.owns(null)).isFalse();
+		assertThat(AdvertiserShard.ALL.owns("79")).isTrue();
+		assertThat(AdvertiserShard.NONE.owns("79")).isFalse();
+
+		assertThat(shard.covers(3, List.of(partition))).isTrue();
+		assertThat(shard.covers(3, List.of((partition + 1) % 3))).isFalse();
+		// A changed partition count moves advertisers, so nothing is covered.
+		assertThat(shard.covers(6, List.of(partition))).isFalse();
+	}
+}
@@ -0,0 +1,76 @@
+package com.rtb.bidder_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rtb.bidder_service.budget.BudgetManager;
+import com.rtb.bidder_service.budget.ChargePoint;
+import com.rtb.bidder_service.capping.FrequencyCapper;
+import com.rtb.bidder_service.metrics.BidMetrics;
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.model.PacingMode;
+import com.rtb.bidder_service.repository.CampaignRepository;
+import com.rtb.wire.dto.BidRequest;
+import com.rtb.wire.dto.BidResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BidDecisionServiceTests {
+
+	@Test
+	void batchBidsPairWithTheirRequestsByPosition() {
+		CampaignRepository repository = mock(CampaignRepository.class);
+		when(repository.findAll()).thenReturn(List.of(
+				campaign(1L, "79", "0.75"),
+				campaign(2L, "79", "0.50"),
+				campaign(3L, "88", "0.60")));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		CampaignIndexService indexService = new CampaignIndexService(repository,
+				new BudgetManager(registry, PacingMode.ASAP), TieBreakers.LOWEST_ID, new CampaignService(), false);
+		indexService.refresh();
+		BidDecisionService decisions = new BidDecisionService(indexService,
+				new CampaignSelector(TieBreakers.LOWEST_ID, FrequencyCapper.off(), 2),
+				new BidMetrics(registry, 0, 200), ChargePoint.BID);
+
+		List<BidRequest> requests = Arrays.asList(
+				request("imp-1", "79", "187"), // two campaigns match: maxBidsPerImpression bids
+				request("imp-2", "79", "999"), // no campaign targets this geo
+				request("imp-3", "88", "187"),
+				request("imp-3", "79", "187"), // same impression id as the request before it
+				null);                         // a record the deserializer could not read
+		int[] bidsPerRequest = new int[requests.size()];
+
+		List<BidResponse> bids = decisions.decideBatch(requests, bidsPerRequest);
+
+		assertThat(bidsPerRequest).containsExactly(2, 0, 1, 2, 0);
+		assertThat(bids).extracting(BidResponse::campaignId).containsExactly("1", "2", "3", "1", "2");
+		// The walk BatchBidderKafkaListener.logDecisions does: bidsPerRequest[i] bids per request, in order.
+		int next = 0;
+		for (int i = 0; i < requests.size(); i++) {
+			for (BidResponse bid : bids.subList(next, next + bidsPerRequest[i])) {
+				assertThat(bid.impressionId()).isEqualTo(requests.get(i).impressionId());
+				assertThat(bid.advertiserId()).isEqualTo(requests.get(i).advertiserId());
+			}
+			next += bidsPerRequest[i];
+		}
+		assertThat(next).isEqualTo(bids.size());
+	}
+
+	private static BidRequest request(String impressionId, String advertiserId, String geoId) {
+		return new BidRequest(impressionId, "342", "17", geoId, "2", advertiserId, "56");
+	}
+
+	private static Campaign campaign(long id, String advertiserId, String bidPrice) {
+		Campaign campaign = new Campaign(advertiserId, new BigDecimal("1000.00"), "187", "56", new BigDecimal(bidPrice));
+		ReflectionTestUtils.setField(campaign, "id", id);
+		return campaign;
+	}
+}
@@ -0,0 +1,55 @@
+package com.rtb.bidder_service.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.repository.CampaignRepository;
+
+class CampaignChangePollerTests {
+
+	private static final Instant LOADED = Instant.parse("2026-01-01T00:00:10Z");
+
+	private final CampaignRepository repository = mock(CampaignRepository.class);
+	private final CampaignIndexService indexService = mock(CampaignIndexService.class);
+	private final CampaignChangePoller poller = new CampaignChangePoller(repository, indexService, 5_000);
+
+	@Test
+	void lateCommitBehindTheWatermarkIsStillAppliedOnce() {
+		when(indexService.loadedUpTo()).thenReturn(LOADED);
+		Campaign newer = campaign(1L, "79", LOADED.plusSeconds(2));
+		when(repository.findByUpdatedAtAfterOrderByUpdatedAtAsc(LOADED.minusSeconds(5))).thenReturn(List.of(newer));
+		poller.poll();
+		verify(indexService).applyChanges(Set.of("79"));
+
+		// A transaction that started before the newer row committed after it was polled.
+		Campaign late = campaign(2L, "88", LOADED.plusSeconds(1));
+		when(repository.findByUpdatedAtAfterOrderByUpdatedAtAsc(LOADED.minusSeconds(3))).thenReturn(List.of(late, newer));
+		poller.poll();
+		verify(indexService).applyChanges(Set.of("88"));
+
+		// Nothing new: both rows are inside the overlap but already applied.
+		poller.poll();
+		verify(indexService, never()).applyChanges(Set.of("79", "88"));
+		verify(indexService, times(2)).applyChanges(any());
+	}
+
+	private static Campaign campaign(long id, String advertiserId, Instant updatedAt) {
+		Campaign campaign = new Campaign(advertiserId, new BigDecimal("1000.00"), "187", "56", new BigDecimal("0.50"));
+		ReflectionTestUtils.setField(campaign, "id", id);
+		ReflectionTestUtils.setField(campaign, "updatedAt", updatedAt);
+		return campaign;
+	}
+}
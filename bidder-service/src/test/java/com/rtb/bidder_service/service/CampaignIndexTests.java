@@ -0,0 +1,111 @@
+package com.rtb.bidder_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rtb.bidder_service.budget.CampaignBudget;
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.service.CampaignIndex.Match;
+import com.rtb.wire.dto.BidRequest;
+
+class CampaignIndexTests {
+
+	@Test
+	void matchesValuesExactlyNotByPrefix() {
+		CampaignIndex index = CampaignIndex.build(List.of(campaign(1L, "18", null, null)));
+
+		assertThat(matchedIds(index, request("187", "56", "342"))).isEmpty();
+		assertThat(matchedIds(index, request("18", "56", "342"))).containsExactly(1L);
+	}
+
+	@Test
+	void blankTargetingMatchesAnyValueIncludingMissingOnes() {
+		CampaignIndex index = CampaignIndex.build(List.of(campaign(1L, null, "", null)));
+
+		assertThat(matchedIds(index, request("187", "56", "342"))).containsExactly(1L);
+		assertThat(matchedIds(index, request(null, null, null))).containsExactly(1L);
+	}
+
+	@Test
+	void exclusionsWinOverIncludesAndWildcards() {
+		CampaignIndex index = CampaignIndex.build(List.of(
+				campaign(1L, "187,188,!188", null, null),
+				campaign(2L, "!187", null, null)));
+
+		assertThat(matchedIds(index, request("187", "56", "342"))).containsExactly(1L);
+		assertThat(matchedIds(index, request("188", "56", "342"))).containsExactly(2L);
+		assertThat(matchedIds(index, request("999", "56", "342"))).containsExactly(2L);
+	}
+
+	@Test
+	void everyDimensionMustMatch() {
+		CampaignIndex index = CampaignIndex.build(List.of(campaign(1L, "187", "56", "342")));
+
+		assertThat(matchedIds(index, request("187", "56", "342"))).containsExactly(1L);
+		assertThat(matchedIds(index, request("187", "56", "343"))).isEmpty();
+		assertThat(matchedIds(index, request("187", "57", "342"))).isEmpty();
+	}
+
+	@Test
+	void matchesAcrossBitsetWordsInRankOrder() {
+		// 150 campaigns spans three 64-bit words; every third one targets geo 187.
+		List<Campaign> campaigns = new ArrayList<>();
+		for (long id = 1; id <= 150; id++) {
+			Campaign campaign = campaign(id, id % 3 == 0 ? "187" : "1", null, null);
+			ReflectionTestUtils.setField(campaign, "bidPrice", BigDecimal.valueOf(1000 - id, 2));
+			campaigns.add(campaign);
+		}
+		CampaignIndex index = CampaignIndex.build(campaigns);
+
+		assertThat(matchedIds(index, request("187", "56", "342")))
+				.containsExactlyElementsOf(IntStream.rangeClosed(1, 50).mapToObj(i -> i * 3L).toList());
+	}
+
+	@Test
+	void withAdvertiserReplacesOnlyThatAdvertiser() {
+		Campaign other = campaign(9L, null, null, null);
+		ReflectionTestUtils.setField(other, "advertiserId", "88");
+		CampaignIndex index = CampaignIndex.build(List.of(campaign(1L, null, null, null), other));
+
+		Campaign deactivated = campaign(1L, null, null, null);
+		deactivated.setActive(false);
+		CampaignIndex updated = index.withAdvertiser("79", List.of(deactivated, campaign(2L, null, null, null)),
+				campaign -> CampaignBudget.unlimited(campaign.getId()), TieBreakers.LOWEST_ID);
+
+		assertThat(matchedIds(updated, request("187", "56", "342"))).containsExactly(2L);
+		assertThat(updated.forAdvertiser("88")).isSameAs(index.forAdvertiser("88"));
+		assertThat(updated.campaignIds()).containsExactlyInAnyOrder(2L, 9L);
+
+		CampaignIndex removed = updated.withAdvertiser("79", List.of(deactivated),
+				campaign -> CampaignBudget.unlimited(campaign.getId()), TieBreakers.LOWEST_ID);
+		assertThat(removed.advertiserCount()).isEqualTo(1);
+		assertThat(removed.campaignCount()).isEqualTo(1);
+	}
+
+	private static List<Long> matchedIds(CampaignIndex index, BidRequest request) {
+		Match match = index.lookup(request, new Match());
+		List<Long> ids = new ArrayList<>();
+		for (int rank = match.nextMatch(0); rank >= 0; rank = match.nextMatch(rank + 1)) {
+			ids.add(match.campaigns().get(rank).id());
+		}
+		return ids;
+	}
+
+	private static BidRequest request(String geoId, String osId, String siteId) {
+		return new BidRequest("imp-1", siteId, "17", geoId, "2", "79", osId);
+	}
+
+	private static Campaign campaign(long id, String geo, String os, String site) {
+		Campaign campaign = new Campaign("79", new BigDecimal("1000.00"), geo, os, new BigDecimal("0.50"));
+		campaign.setTargeting(site, null, null);
+		ReflectionTestUtils.setField(campaign, "id", id);
+		return campaign;
+	}
+}
@@ -0,0 +1,88 @@
+package com.rtb.bidder_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rtb.bidder_service.capping.FrequencyCapper;
+import com.rtb.bidder_service.model.BiddableCampaign;
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.service.CampaignIndex.AdvertiserCampaigns;
+import com.rtb.bidder_service.service.CampaignIndex.Match;
+import com.rtb.wire.dto.BidRequest;
+
+class CampaignSelectorTests {
+
+	private static final BidRequest REQUEST = new BidRequest("imp-1", "342", "17", "187", "2", "79", "56");
+
+	private final CampaignIndex index = CampaignIndex.build(List.of(
+			campaign(1L, "0.50"),
+			campaign(2L, "0.75"),
+			campaign(3L, "0.60"),
+			campaign(4L, "0.75")));
+
+	@Test
+	void picksTheHighestBidRegardlessOfRepositoryOrder() {
+		BiddableCampaign[] picks = new BiddableCampaign[1];
+
+		int count = new CampaignSelector(TieBreakers.LOWEST_ID, FrequencyCapper.off(), 1).select(REQUEST, candidates(), picks);
+
+		assertThat(count).isEqualTo(1);
+		assertThat(picks[0].id()).isEqualTo(2L);
+	}
+
+	@Test
+	void returnsTopNInPriceOrder() {
+		BiddableCampaign[] picks = new BiddableCampaign[3];
+
+		int count = new CampaignSelector(TieBreakers.LOWEST_ID, FrequencyCapper.off(), 3).select(REQUEST, candidates(), picks);
+
+		assertThat(count).isEqualTo(3);
+		assertThat(picks).extracting(BiddableCampaign::id).containsExactly(2L, 4L, 3L);
+	}
+
+	@Test
+	void tieBreakerRotatesWithinEqualPrices() {
+		TieBreaker startAtSecond = new TieBreaker() {
+			@Override
+			public Comparator<BiddableCampaign> order() {
+				return TieBreakers.LOWEST_ID.order();
+			}
+
+			@Override
+			public int startOffset(int groupSize) {
+				return 1;
+			}
+		};
+		BiddableCampaign[] picks = new BiddableCampaign[1];
+
+		new CampaignSelector(startAtSecond, FrequencyCapper.off(), 1).select(REQUEST, candidates(), picks);
+
+		assertThat(picks[0].id()).isEqualTo(4L);
+	}
+
+	@Test
+	void rankedCampaignsKnowTheirTieGroups() {
+		AdvertiserCampaigns candidates = index.forAdvertiser("79");
+
+		assertThat(candidates.groupEnd(0)).isEqualTo(2);
+		assertThat(candidates.groupEnd(1)).isEqualTo(2);
+		assertThat(candidates.groupEnd(2)).isEqualTo(3);
+		assertThat(candidates.groupEnd(3)).isEqualTo(4);
+	}
+
+	private Match candidates() {
+		return index.forAdvertiser("79").match(REQUEST, new Match());
+	}
+
+	private static Campaign campaign(long id, String bidPrice) {
+		Campaign campaign = new Campaign("79", new BigDecimal("1000.00"), "187", "56", new BigDecimal(bidPrice));
+		ReflectionTestUtils.setField(campaign, "id", id);
+		return campaign;
+	}
+}
@@ -0,0 +1,60 @@
+package com.rtb.bidder_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import com.rtb.bidder_service.service.DeadlineGuard.Admission;
+import com.rtb.wire.dto.BidRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeadlineGuardTests {
+
+	private static final long NOW = 1_700_000_000_000L;
+
+	private final DeadlineGuard guard = new DeadlineGuard(new SimpleMeterRegistry(), true, 0, 10, 0.8, 0.9, 0.5);
+
+	@Test
+	void requestsPastTheirDeadlineExpire() {
+		// tmax 100 minus the 10 ms response margin: due at 90 ms.
+		assertThat(guard.admit(request(NOW - 50, 100), NOW)).isEqualTo(Admission.ADMIT);
+		assertThat(guard.admit(request(NOW - 90, 100), NOW)).isEqualTo(Admission.EXPIRED);
+		// No stamp or no tmax means no deadline, however old.
+		assertThat(guard.admit(request(0L, 100), NOW)).isEqualTo(Admission.ADMIT);
+		assertThat(guard.admit(request(NOW - 60_000, 0), NOW)).isEqualTo(Admission.ADMIT);
+	}
+
+	@Test
+	void requestsThatCannotFinishInTimeAreShed() {
+		// Handling has been taking 20 ms, so a request with 15 ms left is not worth starting.
+		for (int i = 0; i < 20; i++) {
+			guard.completed(request(NOW - 10, 1_000), NOW, 20_000_000L);
+		}
+
+		assertThat(guard.admit(request(NOW - 75, 100), NOW)).isEqualTo(Admission.SHED);
+		assertThat(guard.admit(request(NOW - 50, 100), NOW)).isEqualTo(Admission.ADMIT);
+	}
+
+	@Test
+	void sheddingFollowsPressure() {
+		assertThat(guard.shedProbability()).isZero();
+
+		// Requests finishing right at their deadline: pressure 1.0, shed at the maximum.
+		for (int i = 0; i < 20; i++) {
+			guard.completed(request(NOW - 90, 100), NOW, 1_000L);
+		}
+		assertThat(guard.shedProbability()).isCloseTo(0.9, Offset.offset(0.01));
+
+		// Fast again: pressure drops below shed.start and nothing is shed.
+		for (int i = 0; i < 20; i++) {
+			guard.completed(request(NOW - 5, 100), NOW, 1_000L);
+		}
+		assertThat(guard.shedProbability()).isZero();
+	}
+
+	private static BidRequest request(long createdAtMillis, int tmaxMillis) {
+		return new BidRequest("imp-1", "342", "17", "187", "2", "79", "56", createdAtMillis, tmaxMillis);
+	}
+}
@@ -0,0 +1,95 @@
+package com.rtb.bidder_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class KeyOrderedExecutorTests {
+
+	@Test
+	void tasksWithTheSameKeyRunInSubmissionOrder() throws Exception {
+		Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+		try (KeyOrderedExecutor executor = new KeyOrderedExecutor(8, 10_000, "test")) {
+			for (int i = 0; i < 2_000; i++) {
+				String key = "adv-" + (i % 13);
+				int sequence = i;
+				executor.submit(key, () -> seen.computeIfAbsent(key, k -> new ArrayList<>()).add(sequence));
+			}
+			assertThat(executor.awaitTermination(5_000)).isTrue();
+		}
+
+		assertThat(seen).hasSize(13);
+		for (List<Integer> sequences : seen.values()) {
+			assertThat(sequences).isSorted();
+		}
+	}
+
+	@Test
+	void tasksQueuedBehindAFailingTaskStillRunInOrder() throws Exception {
+		List<Integer> seen = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch release = new CountDownLatch(1);
+		try (KeyOrderedExecutor executor = new KeyOrderedExecutor(4, 100, "test")) {
+			// Hold the lane so everything below is queued before the failure.
+			executor.submit("adv-1", () -> await(release));
+			for (int i = 0; i < 20; i++) {
+				int sequence = i;
+				executor.submit("adv-1", () -> {
+					if (sequence == 5) {
+						throw new IllegalStateException("task " + sequence + " failed");
+					}
+					seen.add(sequence);
+				});
+			}
+			release.countDown();
+			assertThat(executor.awaitTermination(5_000)).isTrue();
+			assertThat(executor.inFlight()).isZero();
+		}
+
+		assertThat(seen).hasSize(19).isSorted().doesNotContain(5);
+	}
+
+	@Test
+	void blocksTheSubmitterPastMaxInFlight() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		try (KeyOrderedExecutor executor = new KeyOrderedExecutor(4, 2, "test")) {
+			executor.submit(null, () -> await(release));
+			executor.submit(null, () -> await(release));
+			assertThat(executor.inFlight()).isEqualTo(2);
+
+			AtomicBoolean third = new AtomicBoolean();
+			Thread submitter = Thread.ofVirtual().start(() -> {
+				try {
+					executor.submit(null, () -> third.set(true));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			submitter.join(200);
+			assertThat(submitter.isAlive()).as("third submit should wait for a free slot").isTrue();
+			assertThat(third).isFalse();
+
+			release.countDown();
+			submitter.join(5_000);
+			assertThat(executor.awaitTermination(5_000)).isTrue();
+			assertThat(third).isTrue();
+			assertThat(executor.inFlight()).isZero();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
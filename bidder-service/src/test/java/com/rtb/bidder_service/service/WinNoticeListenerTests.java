@@ -0,0 +1,75 @@
+package com.rtb.bidder_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.rtb.bidder_service.budget.BudgetManager;
+import com.rtb.bidder_service.budget.CampaignBudget;
+import com.rtb.bidder_service.model.Campaign;
+import com.rtb.bidder_service.model.Money;
+import com.rtb.bidder_service.model.PacingMode;
+import com.rtb.wire.dto.WinNotice;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WinNoticeListenerTests {
+
+	private static final long CLEARING = Money.toMicros(new BigDecimal("0.50"));
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final BudgetManager budgets = new BudgetManager(registry, PacingMode.ASAP);
+	private final CampaignBudget budget = budgets.register(campaign());
+
+	@Test
+	void redeliveredBatchIsChargedOnce() {
+		WinNoticeListener listener = listener(null);
+		List<WinNotice> batch = List.of(notice("imp-1"), notice("imp-2"));
+
+		listener.onWinNotices(batch);
+		listener.onWinNotices(batch);
+
+		assertThat(budget.spendMicros()).isEqualTo(2 * Money.cpmToImpressionMicros(CLEARING));
+		assertThat(registry.get("rtb.budget.win.notices").tag("result", "duplicate").counter().count()).isEqualTo(2.0);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void impressionClaimedByAnotherReplicaIsNotCharged() {
+		StringRedisTemplate redis = mock(StringRedisTemplate.class);
+		// SET NX results: imp-1 claimed here, imp-2 already claimed elsewhere.
+		when(redis.executePipelined(any(RedisCallback.class))).thenReturn(List.of(Boolean.TRUE, Boolean.FALSE));
+		WinNoticeListener listener = listener(redis);
+
+		listener.onWinNotices(List.of(notice("imp-1"), notice("imp-2")));
+
+		assertThat(budget.spendMicros()).isEqualTo(Money.cpmToImpressionMicros(CLEARING));
+	}
+
+	@SuppressWarnings("unchecked")
+	private WinNoticeListener listener(StringRedisTemplate redis) {
+		ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(redis);
+		return new WinNoticeListener(budgets, registry, provider, redis != null, 1024, 60);
+	}
+
+	private static WinNotice notice(String impressionId) {
+		return new WinNotice(impressionId, "1", "79", CLEARING, CLEARING, 2);
+	}
+
+	private static Campaign campaign() {
+		Campaign campaign = new Campaign("79", new BigDecimal("1000.00"), "187", "56", new BigDecimal("0.50"));
+		ReflectionTestUtils.setField(campaign, "id", 1L);
+		return campaign;
+	}
+}
@@ -0,0 +1,48 @@
+package com.rtb.publish;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class KafkaPublisherTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void sendsPastTheInFlightBoundAreRejectedUntilOneCompletes() {
+		KafkaTemplate<String, String> template = mock(KafkaTemplate.class);
+		CompletableFuture<SendResult<String, String>> first = new CompletableFuture<>();
+		CompletableFuture<SendResult<String, String>> second = new CompletableFuture<>();
+		when(template.send(anyString(), anyString(), anyString())).thenReturn(first, second);
+		KafkaPublisher<String, String> publisher = new KafkaPublisher<>(template, "bid-responses", 1, 10, registry);
+
+		publisher.send("imp-1", "bid");
+		assertThat(publisher.inFlight()).isEqualTo(1);
+		assertThat(publisher.send("imp-2", "bid")).isCompletedExceptionally();
+
+		first.complete(null);
+		assertThat(publisher.inFlight()).isZero();
+		publisher.send("imp-3", "bid");
+		second.completeExceptionally(new IllegalStateException("broker down"));
+
+		assertThat(sends("ok")).isEqualTo(1.0);
+		assertThat(sends("rejected")).isEqualTo(1.0);
+		assertThat(sends("failed")).isEqualTo(1.0);
+		assertThat(publisher.inFlight()).isZero();
+		assertThat(registry.get("rtb.publisher.send.latency").timer().count()).isEqualTo(1);
+	}
+
+	private double sends(String result) {
+		return registry.get("rtb.publisher.sends").tag("result", result).counter().count();
+	}
+}
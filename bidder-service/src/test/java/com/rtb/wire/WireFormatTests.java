@@ -0,0 +1,88 @@
+package com.rtb.wire;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import com.rtb.bidder_service.codec.BidRequestDeserializer;
+import com.rtb.bidder_service.codec.WinNoticeDeserializer;
+import com.rtb.wire.dto.BidRequest;
+import com.rtb.wire.dto.BidResponse;
+import com.rtb.wire.dto.WinNotice;
+
+class WireFormatTests {
+
+	private final BidRequestDeserializer deserializer = new BidRequestDeserializer();
+
+	@Test
+	void requestRoundTripsIdsExactly() {
+		// Canonical ints, leading zeros, non-numeric ids and nulls must all survive.
+		BidRequest request = new BidRequest("3f1c2a9e-0000-4000-8000-000000000001", "342", "007", "187", null, "79", "0");
+
+		BidRequest decoded = deserializer.deserialize("bid-requests", BidRequestCodec.encode(request));
+
+		assertThat(decoded).isEqualTo(request);
+	}
+
+	@Test
+	void requestCarriesCreatedAtAndTmaxAndStillReadsOlderVersions() {
+		BidRequest request = new BidRequest("imp-1", "342", "17", "187", "2", "79", "56", 1_700_000_000_123L, 120);
+		byte[] payload = BidRequestCodec.encode(request);
+
+		assertThat(deserializer.deserialize("bid-requests", payload)).isEqualTo(request);
+
+		// A v2 producer writes everything but the trailing tmax.
+		byte[] v2 = Arrays.copyOf(payload, payload.length - 4);
+		v2[1] = 2;
+		assertThat(deserializer.deserialize("bid-requests", v2))
+				.isEqualTo(new BidRequest("imp-1", "342", "17", "187", "2", "79", "56", 1_700_000_000_123L));
+
+		// A v1 producer writes the same ids without the timestamp either.
+		byte[] v1 = Arrays.copyOf(payload, payload.length - 12);
+		v1[1] = 1;
+		assertThat(deserializer.deserialize("bid-requests", v1))
+				.isEqualTo(new BidRequest("imp-1", "342", "17", "187", "2", "79", "56"));
+	}
+
+	@Test
+	void deserializerStillReadsJson() {
+		String json = "{\"impressionId\":\"imp-1\",\"siteId\":\"342\",\"adTypeId\":\"17\",\"geoId\":\"187\","
+				+ "\"deviceCategoryId\":\"2\",\"advertiserId\":\"79\",\"osId\":\"56\",\"unknown\":true}";
+
+		BidRequest decoded = deserializer.deserialize("bid-requests", json.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(decoded).isEqualTo(new BidRequest("imp-1", "342", "17", "187", "2", "79", "56"));
+	}
+
+	@Test
+	void responseRoundTrips() {
+		BidResponse response = new BidResponse("imp-1", "12", "79", 750_000L);
+
+		BidResponse decoded = BidResponseCodec.decode(BidResponseCodec.encode(response));
+
+		assertThat(decoded).isEqualTo(response);
+	}
+
+	@Test
+	void winNoticeRoundTrips() {
+		WinNotice notice = new WinNotice("imp-1", "12", "79", 900_000L, 710_000L, 3);
+
+		WinNotice decoded = new WinNoticeDeserializer().deserialize("win-notices", WinNoticeCodec.encode(notice));
+
+		assertThat(decoded).isEqualTo(notice);
+	}
+
+	@Test
+	void newerVersionsAreRejected() {
+		byte[] payload = BidRequestCodec.encode(new BidRequest("imp-1", "1", "1", "1", "1", "1", "1"));
+		payload[1] = (byte) (BidRequestCodec.VERSION + 1);
+
+		assertThatThrownBy(() -> deserializer.deserialize("bid-requests", payload))
+				.isInstanceOf(SerializationException.class);
+	}
+}
@@ -0,0 +1,20 @@
+package com.rtb.impression_simulator.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.rtb.wire.BidRequestCodec;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Writes bid requests in the compact binary wire format instead of JSON.
+ *
+ * The bidder reads both formats, so this can be switched on at any time with:
+ * spring.kafka.producer.value-serializer=com.rtb.impression_simulator.codec.BidRequestBinarySerializer
+ */
+public class BidRequestBinarySerializer implements Serializer<BidRequest> {
+
+    @Override
+    public byte[] serialize(String topic, BidRequest data) {
+        return data == null ? null : BidRequestCodec.encode(data);
+    }
+}
@@ -0,0 +1,61 @@
+package com.rtb.impression_simulator.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.rtb.impression_simulator.publish.AdvertiserPartitioner;
+import com.rtb.publish.ProducerProfile;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    /**
+     * Same tuning as the bidder's producer: rtb.publisher.profile fills in batching and
+     * compression where spring.kafka.producer.* leaves them unset, and sends are
+     * idempotent (acks=all unless acks is set) so producer retries never duplicate a request.
+     * rtb.partitioning.mode=ADVERTISER partitions requests by advertiser instead of by
+     * impressionId (see AdvertiserPartitioner).
+     */
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer tunedProducerCustomizer(
+            @Value("${rtb.publisher.profile:LATENCY}") ProducerProfile profile,
+            @Value("${rtb.publisher.idempotent:true}") boolean idempotent,
+            @Value("${rtb.partitioning.mode:IMPRESSION}") String partitioning) {
+        boolean byAdvertiser = "ADVERTISER".equalsIgnoreCase(partitioning);
+        return producerFactory -> {
+            Map<String, Object> configured = producerFactory.getConfigurationProperties();
+            Map<String, Object> updates = new HashMap<>();
+            profile.settings().forEach((key, value) -> {
+                if (!configured.containsKey(key)) {
+                    updates.put(key, value);
+                }
+            });
+            updates.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotent);
+            if (idempotent && !configured.containsKey(ProducerConfig.ACKS_CONFIG)) {
+                updates.put(ProducerConfig.ACKS_CONFIG, "all");
+            }
+            if (byAdvertiser) {
+                updates.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, AdvertiserPartitioner.class.getName());
+            }
+            producerFactory.updateConfigs(updates);
+        };
+    }
+
+    // The simulator has no actuator, so nothing else provides a registry. The publisher's
+    // send counts are logged by KafkaProducerService instead of being scraped.
+    @Bean
+    @ConditionalOnMissingBean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
@@ -0,0 +1,153 @@
+package com.rtb.impression_simulator.dataset;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * The Kaggle dataset, reduced to the six columns a bid request needs and stored column by
+ * column as dictionary codes.
+ *
+ * Each column keeps every distinct (trimmed) value once in a dictionary and one int code
+ * per row, so 500k rows cost a few MB of int arrays instead of 500k CSVRecords with all
+ * 17 columns as Strings. The CSV is streamed once at startup; no record outlives its
+ * line. Building a request from a row is just array reads: every field is a shared
+ * dictionary String, so the only new String per request is its impression id.
+ */
+public final class RequestDataset {
+
+    // Column positions in data.csv.
+    private static final int SITE = 1;
+    private static final int AD_TYPE = 2;
+    private static final int GEO = 3;
+    private static final int DEVICE_CATEGORY = 4;
+    private static final int ADVERTISER = 5;
+    private static final int OS = 8;
+    private static final int MIN_COLUMNS = OS + 1;
+
+    private final int rows;
+    private final Column site;
+    private final Column adType;
+    private final Column geo;
+    private final Column deviceCategory;
+    private final Column advertiser;
+    private final Column os;
+
+    private RequestDataset(int rows, Column site, Column adType, Column geo, Column deviceCategory,
+                           Column advertiser, Column os) {
+        this.rows = rows;
+        this.site = site;
+        this.adType = adType;
+        this.geo = geo;
+        this.deviceCategory = deviceCategory;
+        this.advertiser = advertiser;
+        this.os = os;
+    }
+
+    /**
+     * Streams a CSV with a header line into a dataset. Rows with too few columns are
+     * skipped.
+     */
+    public static RequestDataset load(Reader csv) throws IOException {
+        Column.Builder site = new Column.Builder();
+        Column.Builder adType = new Column.Builder();
+        Column.Builder geo = new Column.Builder();
+        Column.Builder deviceCategory = new Column.Builder();
+        Column.Builder advertiser = new Column.Builder();
+        Column.Builder os = new Column.Builder();
+        int rows = 0;
+
+        CSVFormat format = CSVFormat.DEFAULT.builder().setSkipHeaderRecord(true).setHeader().build();
+        try (CSVParser parser = format.parse(csv)) {
+            for (CSVRecord record : parser) {
+                if (record.size() < MIN_COLUMNS) {
+                    continue;
+                }
+                site.add(record.get(SITE));
+                adType.add(record.get(AD_TYPE));
+                geo.add(record.get(GEO));
+                deviceCategory.add(record.get(DEVICE_CATEGORY));
+                advertiser.add(record.get(ADVERTISER));
+                os.add(record.get(OS));
+                rows++;
+            }
+        }
+        return new RequestDataset(rows, site.build(), adType.build(), geo.build(), deviceCategory.build(),
+                advertiser.build(), os.build());
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public BidRequest request(int row, String impressionId, long createdAtMillis, int tmaxMillis) {
+        return new BidRequest(
+            impressionId,
+            site.value(row),
+            adType.value(row),
+            geo.value(row),
+            deviceCategory.value(row),
+            advertiser.value(row),
+            os.value(row),
+            createdAtMillis,
+            tmaxMillis
+        );
+    }
+
+    /**
+     * Distinct values across all six columns; a quick check that dictionary encoding pays off.
+     */
+    public int dictionarySize() {
+        return site.dictionary.length + adType.dictionary.length + geo.dictionary.length
+                + deviceCategory.dictionary.length + advertiser.dictionary.length + os.dictionary.length;
+    }
+
+    private static final class Column {
+        final String[] dictionary;
+        final int[] codes;
+
+        Column(String[] dictionary, int[] codes) {
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        String value(int row) {
+            return dictionary[codes[row]];
+        }
+
+        static final class Builder {
+            private final Map<String, Integer> codesByValue = new HashMap<>();
+            private final List<String> dictionary = new ArrayList<>();
+            private int[] codes = new int[1 << 16];
+            private int size;
+
+            void add(String raw) {
+                String value = raw.trim();
+                Integer code = codesByValue.get(value);
+                if (code == null) {
+                    code = dictionary.size();
+                    codesByValue.put(value, code);
+                    dictionary.add(value);
+                }
+                if (size == codes.length) {
+                    codes = Arrays.copyOf(codes, size * 2);
+                }
+                codes[size++] = code;
+            }
+
+            Column build() {
+                return new Column(dictionary.toArray(new String[0]), Arrays.copyOf(codes, size));
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.rtb.impression_simulator.load;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rtb.impression_simulator.service.KafkaProducerService;
+import com.rtb.impression_simulator.service.SimulationService;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Open-loop load: requests are sent on a schedule set by a {@link RateProfile}, whether
+ * or not earlier sends have completed.
+ *
+ * The closed loop (SimulationService.runSimulationLoop) sends as fast as Kafka lets it,
+ * so its rate is an outcome, not an input, and a slow broker quietly lowers the load
+ * instead of showing up as latency. Here each of rtb.load.workers virtual threads owns
+ * every Nth slot of the schedule: its next send is due workers / rate seconds after the
+ * previous one was due (not after it finished), and the first sends are staggered so
+ * the workers interleave. A worker that falls behind sends immediately until it has
+ * caught up, and the time it was late is counted in the intended latency (see
+ * {@link SendLatencyRecorder}). Each worker draws rows from its own SplittableRandom,
+ * split from one seed, so nothing is shared on the send path but the producer. A send
+ * that throws is counted as failed (logged at most once every 10 s) and the worker moves
+ * on to its next slot, so errors show up in the failed count rather than as a lower rate.
+ *
+ * Every rtb.load.report-interval a line with the target and achieved rate and the
+ * intended vs actual percentiles is logged. After rtb.load.duration the workers stop,
+ * the producer is flushed and a summary is logged; if rtb.load.report-path is set, the
+ * full intended/actual percentile distributions are written there (HdrHistogram .hgrm
+ * format, plottable with the usual HdrHistogram plotter).
+ */
+@Component
+public class OpenLoopGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenLoopGenerator.class);
+    private static final long ERROR_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final SimulationService simulationService;
+    private final KafkaProducerService kafkaProducerService;
+    private final RateProfile profile;
+    private final int workers;
+    private final Duration duration;
+    private final Duration reportInterval;
+    private final String reportPath;
+    private final long seed;
+
+    private final AtomicLong unloggedErrors = new AtomicLong();
+    private final AtomicLong nextErrorLog = new AtomicLong(System.nanoTime());
+
+    public OpenLoopGenerator(SimulationService simulationService, KafkaProducerService kafkaProducerService,
+                             @Value("${rtb.load.profile:CONSTANT}") RateProfile.Shape shape,
+                             @Value("${rtb.load.rate:1000}") double rate,
+                             @Value("${rtb.load.start-rate:100}") double startRate,
+                             @Value("${rtb.load.step-rate:500}") double stepRate,
+                             @Value("${rtb.load.step-duration:PT30S}") Duration stepDuration,
+                             @Value("${rtb.load.ramp-duration:PT1M}") Duration rampDuration,
+                             @Value("${rtb.load.burst-duration:PT5S}") Duration burstDuration,
+                             @Value("${rtb.load.burst-period:PT30S}") Duration burstPeriod,
+                             @Value("${rtb.load.workers:64}") int workers,
+                             @Value("${rtb.load.duration:PT5M}") Duration duration,
+                             @Value("${rtb.load.report-interval:PT10S}") Duration reportInterval,
+                             @Value("${rtb.load.report-path:}") String reportPath,
+                             @Value("${rtb.load.seed:0}") long seed) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("rtb.load.workers must be positive");
+        }
+        this.simulationService = simulationService;
+        this.kafkaProducerService = kafkaProducerService;
+        this.profile = RateProfile.of(shape, rate, startRate, stepRate, stepDuration, rampDuration,
+                burstDuration, burstPeriod);
+        this.workers = workers;
+        this.duration = duration;
+        this.reportInterval = reportInterval;
+        this.reportPath = reportPath;
+        // 0 = a different run every time; set it to replay the same sequence of rows.
+        this.seed = seed != 0 ? seed : System.nanoTime();
+    }
+
+    public void run() throws InterruptedException {
+        log.info("Starting open-loop load: {} workers for {}, initial target {}/s",
+                workers, duration, profile.ratePerSecond(0));
+        SendLatencyRecorder recorder = new SendLatencyRecorder();
+        SplittableRandom root = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < workers; i++) {
+                SplittableRandom random = root.split();
+                // Stagger: worker i takes slot i of the first round.
+                long firstSend = start + (long) (i * 1e9 / profile.ratePerSecond(0));
+                executor.submit(() -> runWorker(random, start, firstSend, end, recorder));
+            }
+
+            long lastReport = start;
+            long lastSent = 0;
+            while (System.nanoTime() - end < 0) {
+                Thread.sleep(Math.min(reportInterval.toMillis(), Math.max(1, (end - System.nanoTime()) / 1_000_000)));
+                long now = System.nanoTime();
+                long sent = recorder.sentCount();
+                logInterval(recorder, now - start, now - lastReport, sent - lastSent);
+                lastReport = now;
+                lastSent = sent;
+            }
+        }
+
+        // Workers are done; wait for the last acks before the summary.
+        kafkaProducerService.flush();
+        long elapsed = System.nanoTime() - start;
+        logSummary(recorder, elapsed);
+    }
+
+    private void runWorker(SplittableRandom random, long start, long firstSend, long end,
+                           SendLatencyRecorder recorder) {
+        long due = firstSend;
+        while (due - end < 0) {
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intended = due;
+            long actual = System.nanoTime();
+            try {
+                BidRequest request = simulationService.nextRequest(random);
+                kafkaProducerService.sendBidRequest(request).whenComplete((result, error) -> {
+                    if (error == null) {
+                        recorder.acked(intended, actual, System.nanoTime());
+                    } else {
+                        recorder.failed();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Count the slot as failed and keep to the schedule: a worker that died here
+                // would silently take its share of the target rate with it.
+                recorder.failed();
+                logSendError(e);
+            }
+            recorder.sent();
+            // Fixed interval: the next slot is due relative to this one's due time.
+            due = intended + (long) (workers * 1e9 / profile.ratePerSecond(intended - start));
+        }
+    }
+
+    private void logSendError(RuntimeException error) {
+        long unlogged = unloggedErrors.incrementAndGet();
+        long due = nextErrorLog.get();
+        long now = System.nanoTime();
+        if (now - due >= 0 && nextErrorLog.compareAndSet(due, now + ERROR_LOG_INTERVAL_NANOS)) {
+            unloggedErrors.addAndGet(-unlogged);
+            log.error("{} open-loop send(s) threw since the last report, latest:", unlogged, error);
+        }
+    }
+
+    private void logInterval(SendLatencyRecorder recorder, long elapsed, long interval, long sent) {
+        Histogram[] latencies = recorder.interval();
+        log.info("t={}s target={}/s sent={}/s acked={} failed={} intended p50/p99/max={}/{}/{} ms actual p50/p99/max={}/{}/{} ms",
+                elapsed / 1_000_000_000, Math.round(profile.ratePerSecond(elapsed)),
+                Math.round(sent * 1e9 / Math.max(1, interval)), latencies[0].getTotalCount(), recorder.failedCount(),
+                millis(latencies[0], 50), millis(latencies[0], 99), millis(latencies[0], 100),
+                millis(latencies[1], 50), millis(latencies[1], 99), millis(latencies[1], 100));
+    }
+
+    private void logSummary(SendLatencyRecorder recorder, long elapsed) {
+        recorder.interval(); // fold in whatever arrived since the last report
+        Histogram intended = recorder.intendedTotal();
+        Histogram actual = recorder.actualTotal();
+        log.info("Open-loop run finished after {} s: sent {}, acked {}, failed {}",
+                elapsed / 1_000_000_000, recorder.sentCount(), intended.getTotalCount(), recorder.failedCount());
+        log.info("Rate: target mean {}/s, achieved {}/s (acked)",
+                Math.round(profile.meanRatePerSecond(elapsed)), Math.round(intended.getTotalCount() * 1e9 / elapsed));
+        for (double percentile : new double[] {50, 90, 99, 99.9, 99.99, 100}) {
+            log.info("p{}: intended {} ms, actual {} ms", percentile, millis(intended, percentile), millis(actual, percentile));
+        }
+
+        if (!reportPath.isBlank()) {
+            Path path = Path.of(reportPath);
+            try (PrintStream out = new PrintStream(Files.newOutputStream(path))) {
+                out.println("# Intended send latency (ms), corrected for coordinated omission");
+                intended.outputPercentileDistribution(out, 1000.0);
+                out.println();
+                out.println("# Actual send latency (ms)");
+                actual.outputPercentileDistribution(out, 1000.0);
+                log.info("Latency distributions written to {}", path.toAbsolutePath());
+            } catch (IOException e) {
+                log.warn("Could not write the latency report to {}", path, e);
+            }
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
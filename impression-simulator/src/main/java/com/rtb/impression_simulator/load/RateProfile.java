@@ -0,0 +1,70 @@
+package com.rtb.impression_simulator.load;
+
+import java.time.Duration;
+
+/**
+ * Target send rate, in requests per second, as a function of time since the run started.
+ *
+ * - CONSTANT: rate for the whole run.
+ * - RAMP: linear from start-rate to rate over ramp-duration, then rate.
+ * - STEP: start-rate, plus step-rate every step-duration, capped at rate. The usual way to
+ *   walk up to the bidder's saturation point and see where latency bends.
+ * - BURST: start-rate, except for burst-duration at the start of every burst-period, when
+ *   it is rate.
+ */
+public interface RateProfile {
+
+    enum Shape {
+        CONSTANT, RAMP, STEP, BURST
+    }
+
+    double ratePerSecond(long elapsedNanos);
+
+    /**
+     * Mean rate over the first elapsedNanos, for comparing the achieved rate against.
+     */
+    default double meanRatePerSecond(long elapsedNanos) {
+        if (elapsedNanos <= 0) {
+            return ratePerSecond(0);
+        }
+        // 1000 samples is plenty for reporting and cheap enough to do once per report.
+        double sum = 0;
+        for (int i = 0; i < 1000; i++) {
+            sum += ratePerSecond(elapsedNanos * i / 1000);
+        }
+        return sum / 1000;
+    }
+
+    static RateProfile of(Shape shape, double rate, double startRate, double stepRate, Duration stepDuration,
+                          Duration rampDuration, Duration burstDuration, Duration burstPeriod) {
+        if (rate <= 0 || startRate <= 0) {
+            throw new IllegalArgumentException("rtb.load.rate and rtb.load.start-rate must be positive");
+        }
+        return switch (shape) {
+            case CONSTANT -> elapsed -> rate;
+            case RAMP -> {
+                long over = positive(rampDuration, "rtb.load.ramp-duration");
+                yield elapsed -> elapsed >= over ? rate : startRate + (rate - startRate) * elapsed / over;
+            }
+            case STEP -> {
+                long every = positive(stepDuration, "rtb.load.step-duration");
+                if (stepRate <= 0) {
+                    throw new IllegalArgumentException("rtb.load.step-rate must be positive");
+                }
+                yield elapsed -> Math.min(rate, startRate + stepRate * (elapsed / every));
+            }
+            case BURST -> {
+                long period = positive(burstPeriod, "rtb.load.burst-period");
+                long length = positive(burstDuration, "rtb.load.burst-duration");
+                yield elapsed -> elapsed % period < length ? rate : startRate;
+            }
+        };
+    }
+
+    private static long positive(Duration duration, String property) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException(property + " must be positive");
+        }
+        return duration.toNanos();
+    }
+}
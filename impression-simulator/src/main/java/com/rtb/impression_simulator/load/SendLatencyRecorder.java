@@ -0,0 +1,82 @@
+package com.rtb.impression_simulator.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Send latencies of an open-loop run, measured two ways.
+ *
+ * - intended: from the time the schedule said a request should be sent to the broker's
+ *   ack. This is what a real exchange would see: if the generator (or the producer
+ *   blocking on a full buffer) falls behind, the wait counts. It is the number that does
+ *   not suffer from coordinated omission.
+ * - actual: from the moment send() was really called to the ack. The classic
+ *   closed-loop number; the gap between the two shows how far behind schedule we are.
+ *
+ * Both go into HdrHistogram Recorders in microseconds, which take concurrent writes
+ * from the producer's callback thread without locking. The reporter swaps out an
+ * interval histogram every report and folds it into a run total.
+ */
+public final class SendLatencyRecorder {
+
+    // One hour in microseconds; anything beyond is clamped (and would mean the run is broken anyway).
+    private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final Recorder intended = new Recorder(HIGHEST_MICROS, 3);
+    private final Recorder actual = new Recorder(HIGHEST_MICROS, 3);
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private Histogram intendedInterval;
+    private Histogram actualInterval;
+    private final Histogram intendedTotal = new Histogram(HIGHEST_MICROS, 3);
+    private final Histogram actualTotal = new Histogram(HIGHEST_MICROS, 3);
+
+    public void sent() {
+        sent.increment();
+    }
+
+    public void acked(long intendedNanos, long actualNanos, long ackedNanos) {
+        intended.recordValue(micros(ackedNanos - intendedNanos));
+        actual.recordValue(micros(ackedNanos - actualNanos));
+    }
+
+    public void failed() {
+        failed.increment();
+    }
+
+    public long sentCount() {
+        return sent.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Swaps out the latencies recorded since the last call and adds them to the totals.
+     * Returns {intended, actual} for the interval. Only the reporter thread calls this.
+     */
+    Histogram[] interval() {
+        intendedInterval = intended.getIntervalHistogram(intendedInterval);
+        actualInterval = actual.getIntervalHistogram(actualInterval);
+        intendedTotal.add(intendedInterval);
+        actualTotal.add(actualInterval);
+        return new Histogram[] {intendedInterval, actualInterval};
+    }
+
+    Histogram intendedTotal() {
+        return intendedTotal;
+    }
+
+    Histogram actualTotal() {
+        return actualTotal;
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0L, nanos / 1_000));
+    }
+}
@@ -0,0 +1,49 @@
+package com.rtb.impression_simulator.publish;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Sends every bid request of an advertiser to the same partition
+ * (rtb.partitioning.mode=ADVERTISER), so a bidder running with rtb.sharding.enabled only
+ * needs the campaigns of its own partitions' advertisers.
+ *
+ * The partition is Kafka's default key hash of the advertiserId (murmur2 over the UTF-8
+ * bytes), exactly as if the record were keyed by advertiserId; that is also what the
+ * bidder's AdvertiserShard computes. The key itself stays the impressionId, so traces and
+ * recorded responses still line up by impression. Records without an advertiser fall
+ * back to the key hash, or a random partition without a key.
+ */
+public class AdvertiserPartitioner implements Partitioner {
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int partitions = cluster.partitionCountForTopic(topic);
+        if (value instanceof BidRequest request && request.advertiserId() != null) {
+            return partitionFor(request.advertiserId(), partitions);
+        }
+        if (keyBytes != null) {
+            return Utils.toPositive(Utils.murmur2(keyBytes)) % partitions;
+        }
+        return ThreadLocalRandom.current().nextInt(partitions);
+    }
+
+    public static int partitionFor(String advertiserId, int partitions) {
+        return Utils.toPositive(Utils.murmur2(advertiserId.getBytes(StandardCharsets.UTF_8))) % partitions;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
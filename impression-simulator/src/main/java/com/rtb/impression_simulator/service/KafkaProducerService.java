@@ -1,38 +1,63 @@
 package com.rtb.impression_simulator.service;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
-import com.rtb.impression_simulator.dto.BidRequest;
+import com.rtb.impression_simulator.trace.TraceRecorder;
+import com.rtb.publish.KafkaPublisher;
+import com.rtb.wire.dto.BidRequest;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class KafkaProducerService {
     private static final Logger log = LoggerFactory.getLogger(KafkaProducerService.class);
     public static final String TOPIC = "bid-requests";
 
-    private final KafkaTemplate<String, BidRequest> kafkaTemplate;
+    // Bounds unacknowledged sends (rtb.publisher.max-in-flight): past that, workers block
+    // instead of piling records into the producer's buffer.
+    private final KafkaPublisher<String, BidRequest> publisher;
+    private final TraceRecorder traceRecorder;
     
     // This is a thread-safe counter, perfect for high-concurrency
     private final AtomicLong requestCounter = new AtomicLong(0);
 
-    public KafkaProducerService(KafkaTemplate<String, BidRequest> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public KafkaProducerService(KafkaTemplate<String, BidRequest> kafkaTemplate, TraceRecorder traceRecorder,
+                                MeterRegistry meterRegistry,
+                                @Value("${rtb.publisher.max-in-flight:10000}") int maxInFlight,
+                                @Value("${rtb.publisher.max-block-ms:1000}") long maxBlockMillis) {
+        this.publisher = new KafkaPublisher<>(kafkaTemplate, TOPIC, maxInFlight, maxBlockMillis, meterRegistry);
+        this.traceRecorder = traceRecorder;
     }
 
-    public void sendBidRequest(BidRequest request) {
-        // This is the asynchronous send.
-        kafkaTemplate.send(TOPIC, request.impressionId(), request);
+    public CompletableFuture<SendResult<String, BidRequest>> sendBidRequest(BidRequest request) {
+        // This is the asynchronous send. The future completes when the broker acks.
+        CompletableFuture<SendResult<String, BidRequest>> future = publisher.send(request.impressionId(), request);
+        // No-op unless rtb.trace.record-path is set.
+        traceRecorder.record(request);
 
         // Increment the counter and get the new value.
         long count = requestCounter.incrementAndGet();
 
         // Log every 1000th request. This is deterministic and reliable.
         if (count % 1000 == 0) {
-            log.info("Successfully sent {} total requests. Last ID: {}", count, request.impressionId());
+            log.info("Successfully sent {} total requests ({} failed, {} in flight). Last ID: {}",
+                    count, publisher.failures(), publisher.inFlight(), request.impressionId());
         }
+        return future;
+    }
+
+    /**
+     * Blocks until every send so far has been acked or failed.
+     */
+    public void flush() {
+        publisher.flush();
     }
 }
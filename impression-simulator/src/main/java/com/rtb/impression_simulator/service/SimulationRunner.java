@@ -2,9 +2,13 @@ package com.rtb.impression_simulator.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import com.rtb.impression_simulator.load.OpenLoopGenerator;
+import com.rtb.impression_simulator.trace.TraceReplayer;
+
 import java.util.concurrent.Executors;
 
 @Component
@@ -12,21 +16,43 @@ public class SimulationRunner implements CommandLineRunner {
 
     private static final Logger log = LoggerFactory.getLogger(SimulationRunner.class);
     private final SimulationService simulationService;
+    private final OpenLoopGenerator openLoopGenerator;
+    private final TraceReplayer traceReplayer;
+
+    // "closed": workers send back to back, as fast as Kafka accepts (rate = whatever we get).
+    // "open": a target rate from rtb.load.* (see OpenLoopGenerator), for reproducible runs.
+    // "replay": the requests of a recorded trace, with their original timing (see TraceReplayer).
+    private final String mode;
 
-    // This is how many parallel workers we will create.
-    private static final int PARALLEL_WORKERS = 500;
+    // This is how many parallel workers we will create (closed mode).
+    private final int parallelWorkers;
 
-    public SimulationRunner(SimulationService simulationService) {
+    public SimulationRunner(SimulationService simulationService, OpenLoopGenerator openLoopGenerator,
+                            TraceReplayer traceReplayer,
+                            @Value("${rtb.load.mode:closed}") String mode,
+                            @Value("${rtb.simulation.workers:500}") int parallelWorkers) {
         this.simulationService = simulationService;
+        this.openLoopGenerator = openLoopGenerator;
+        this.traceReplayer = traceReplayer;
+        this.mode = mode;
+        this.parallelWorkers = parallelWorkers;
     }
 
     @Override
     public void run(String... args) throws Exception {
-        log.info("Starting simulation with {} parallel virtual thread workers...", PARALLEL_WORKERS);
+        if ("open".equalsIgnoreCase(mode)) {
+            openLoopGenerator.run();
+            return;
+        }
+        if ("replay".equalsIgnoreCase(mode)) {
+            traceReplayer.run();
+            return;
+        }
+        log.info("Starting simulation with {} parallel virtual thread workers...", parallelWorkers);
 
         try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
             
-            for (int i = 0; i < PARALLEL_WORKERS; i++) {
+            for (int i = 0; i < parallelWorkers; i++) {
                 executor.submit(() -> simulationService.runSimulationLoop());
             }
         }
@@ -1,20 +1,22 @@
 package com.rtb.impression_simulator.service;
 
-import com.rtb.impression_simulator.dto.BidRequest;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import com.rtb.impression_simulator.dataset.ImpressionIdGenerator;
+import com.rtb.impression_simulator.dataset.RequestDataset;
+import com.rtb.wire.dto.BidRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct; // <-- NEW IMPORT
+import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.List;
-import java.util.Random;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 @Service
 // REMOVED "implements CommandLineRunner"
@@ -24,14 +26,19 @@ public class SimulationService {
 
     private final ResourceLoader resourceLoader;
     private final KafkaProducerService kafkaProducerService;
-    private final Random random = new Random();
+    private final ImpressionIdGenerator impressionIds = new ImpressionIdGenerator();
 
-    // This holds 500k+ records in memory
-    private List<CSVRecord> csvRecords;
+    // Deadline stamped on every request, like an exchange's tmax. 0 sends none.
+    private final int tmaxMillis;
 
-    public SimulationService(ResourceLoader resourceLoader, KafkaProducerService kafkaProducerService) {
+    // The 500k+ rows, column by column as dictionary codes (see RequestDataset).
+    private RequestDataset dataset;
+
+    public SimulationService(ResourceLoader resourceLoader, KafkaProducerService kafkaProducerService,
+                             @Value("${rtb.simulation.tmax-ms:100}") int tmaxMillis) {
         this.resourceLoader = resourceLoader;
         this.kafkaProducerService = kafkaProducerService;
+        this.tmaxMillis = tmaxMillis;
     }
 
     // @PostConstruct tells Spring to run this method
@@ -39,17 +46,25 @@ public class SimulationService {
     @PostConstruct
     public void loadCsvData() throws Exception {
         log.info("Loading Kaggle dataset from classpath...");
+        long start = System.nanoTime();
         Resource resource = resourceLoader.getResource("classpath:data.csv");
-        Reader reader = new InputStreamReader(resource.getInputStream());
-
-        CSVParser csvParser = CSVFormat.DEFAULT.builder()
-               .setHeader()
-               .setSkipHeaderRecord(true)
-               .build()
-               .parse(reader);
+        try (Reader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            this.dataset = RequestDataset.load(reader);
+        }
+        if (dataset.size() == 0) {
+            throw new IllegalStateException("data.csv has no usable rows");
+        }
+        log.info("Successfully loaded {} records from data.csv in {} ms ({} distinct values)",
+                dataset.size(), (System.nanoTime() - start) / 1_000_000, dataset.dictionarySize());
+    }
 
-        this.csvRecords = csvParser.getRecords();
-        log.info("Successfully loaded {} records from data.csv", this.csvRecords.size());
+    /**
+     * A request for a random row of the dataset, stamped now with rtb.simulation.tmax-ms. Callers bring their own
+     * generator so concurrent workers never share one.
+     */
+    public BidRequest nextRequest(RandomGenerator random) {
+        int row = random.nextInt(dataset.size());
+        return dataset.request(row, impressionIds.next(), System.currentTimeMillis(), tmaxMillis);
     }
 
     /**
@@ -60,11 +75,9 @@ public class SimulationService {
     public void runSimulationLoop() {
         try {
             while (true) {
-                // 1. Pick a random row
-                CSVRecord randomRecord = csvRecords.get(random.nextInt(csvRecords.size()));
-                
-                // 2. Create a BidRequest
-                BidRequest request = BidRequest.fromCsvRow(randomRecord.values());
+                // 1 + 2. Pick a random row and build a BidRequest from it.
+                // ThreadLocalRandom: no seed shared between workers.
+                BidRequest request = nextRequest(ThreadLocalRandom.current());
 
                 // 3. Send it to Kafka. This is an I/O-bound call.
                 // The virtual thread will "park" here, freeing the
@@ -0,0 +1,93 @@
+package com.rtb.impression_simulator.trace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compares two response captures of the same trace (see {@link ResponseRecorder}),
+ * impression by impression: which impressions got the same bids, different bids, or bids
+ * in only one of the runs.
+ *
+ * The bids of an impression are compared as a set of campaignId@bidPriceMicros, so the
+ * order responses arrived in does not matter. Both captures are held in memory, which is
+ * fine for the millions of lines a replay produces.
+ *
+ * Run from the simulator's jar:
+ *   java -cp impression-simulator.jar -Dloader.main=com.rtb.impression_simulator.trace.ResponseDiff \
+ *       org.springframework.boot.loader.launch.PropertiesLauncher before.tsv after.tsv
+ */
+public final class ResponseDiff {
+
+    private static final int MAX_EXAMPLES = 20;
+
+    public record Result(int same, int changed, int onlyLeft, int onlyRight, List<String> examples) {}
+
+    private ResponseDiff() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: ResponseDiff <left.tsv> <right.tsv>");
+            System.exit(2);
+        }
+        Result result = compare(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("same=%d changed=%d only-left=%d only-right=%d%n",
+                result.same(), result.changed(), result.onlyLeft(), result.onlyRight());
+        result.examples().forEach(System.out::println);
+        System.exit(result.changed() + result.onlyLeft() + result.onlyRight() == 0 ? 0 : 1);
+    }
+
+    public static Result compare(Path left, Path right) throws IOException {
+        Map<String, TreeSet<String>> before = load(left);
+        Map<String, TreeSet<String>> after = load(right);
+        int same = 0;
+        int changed = 0;
+        int onlyLeft = 0;
+        List<String> examples = new ArrayList<>();
+
+        for (Map.Entry<String, TreeSet<String>> entry : before.entrySet()) {
+            TreeSet<String> other = after.remove(entry.getKey());
+            if (other == null) {
+                onlyLeft++;
+                example(examples, "- " + entry.getKey() + " " + entry.getValue());
+            } else if (other.equals(entry.getValue())) {
+                same++;
+            } else {
+                changed++;
+                example(examples, "~ " + entry.getKey() + " " + entry.getValue() + " -> " + other);
+            }
+        }
+        for (Map.Entry<String, TreeSet<String>> entry : after.entrySet()) {
+            example(examples, "+ " + entry.getKey() + " " + entry.getValue());
+        }
+        return new Result(same, changed, onlyLeft, after.size(), examples);
+    }
+
+    private static Map<String, TreeSet<String>> load(Path capture) throws IOException {
+        Map<String, TreeSet<String>> bids = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(capture, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length < 4) {
+                    continue;
+                }
+                bids.computeIfAbsent(fields[0], k -> new TreeSet<>()).add(fields[1] + "@" + fields[3]);
+            }
+        }
+        return bids;
+    }
+
+    private static void example(List<String> examples, String line) {
+        if (examples.size() < MAX_EXAMPLES) {
+            examples.add(line);
+        }
+    }
+}
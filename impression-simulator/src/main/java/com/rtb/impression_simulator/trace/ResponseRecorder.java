@@ -0,0 +1,81 @@
+package com.rtb.impression_simulator.trace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * Captures the bidder's responses during a replay, one line per bid:
+ *
+ *   impressionId TAB campaignId TAB advertiserId TAB bidPriceMicros
+ *
+ * Replays keep the trace's impression ids, so two captures of the same trace line up by
+ * impression and {@link ResponseDiff} can compare them. The listener never starts on its
+ * own; TraceReplayer starts it (in a fresh consumer group, reading from the latest
+ * offset) only when rtb.trace.responses-path is set.
+ */
+@Component
+public class ResponseRecorder {
+
+    public static final String LISTENER_ID = "trace-responses";
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseRecorder.class);
+
+    private BufferedWriter out;
+    private long responses;
+
+    synchronized void open(Path path) throws IOException {
+        this.out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.responses = 0;
+    }
+
+    @KafkaListener(
+        id = LISTENER_ID,
+        topics = "${rtb.trace.responses.topic:bid-responses}",
+        groupId = "impression-simulator-replay-${random.uuid}",
+        autoStartup = "false",
+        properties = {
+            "auto.offset.reset=latest",
+            "value.deserializer=com.rtb.wire.BidResponseDeserializer"
+        }
+    )
+    public synchronized void onResponse(ConsumerRecord<String, BidResponse> record) throws IOException {
+        BidResponse response = record.value();
+        if (out == null || response == null) {
+            return;
+        }
+        out.write(response.impressionId());
+        out.write('\t');
+        out.write(String.valueOf(response.campaignId()));
+        out.write('\t');
+        out.write(String.valueOf(response.advertiserId()));
+        out.write('\t');
+        out.write(Long.toString(response.bidPriceMicros()));
+        out.newLine();
+        responses++;
+    }
+
+    synchronized long close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.error("Could not close the response capture", e);
+            }
+            out = null;
+        }
+        return responses;
+    }
+}
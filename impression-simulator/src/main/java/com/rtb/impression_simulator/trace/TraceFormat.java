@@ -0,0 +1,30 @@
+package com.rtb.impression_simulator.trace;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Layout of a bid-request trace file. All numbers are big-endian.
+ *
+ * Header (20 bytes):
+ *   MAGIC ("RTBTRACE", 8 bytes), VERSION (int), startEpochMillis (long): wall clock at
+ *   the first record.
+ * Then one record per request, appended in send order:
+ *   payload length (int), offsetNanos (long): time since the first record, payload: the
+ *   request in the binary wire format (BidRequestCodec), createdAtMillis included.
+ *
+ * Offsets never decrease, so replaying record i at start + offsetNanos / speed keeps the
+ * original inter-arrival gaps. A trace cut short by a crash ends in a partial record,
+ * which readers treat as the end of the trace.
+ */
+final class TraceFormat {
+
+    static final byte[] MAGIC = "RTBTRACE".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8 + 4 + 8;
+    static final int RECORD_HEADER_SIZE = 4 + 8;
+
+    // Far above any real request (a few dozen bytes); guards against reading garbage.
+    static final int MAX_PAYLOAD = 1 << 16;
+
+    private TraceFormat() {}
+}
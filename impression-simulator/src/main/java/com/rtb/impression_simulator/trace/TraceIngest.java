@@ -0,0 +1,72 @@
+package com.rtb.impression_simulator.trace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rtb.wire.BidRequestCodec;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Turns a captured stream of JSON bid requests, one per line (for example the output of
+ * kafka-console-consumer on the bid-requests topic), into a trace file.
+ *
+ * Gaps between requests come from their createdAtMillis stamps, so the trace has
+ * millisecond resolution; a request stamped earlier than its predecessor is replayed
+ * right after it. Lines that are blank or not JSON objects are skipped.
+ *
+ * Run from the simulator's jar:
+ *   java -cp impression-simulator.jar -Dloader.main=com.rtb.impression_simulator.trace.TraceIngest \
+ *       org.springframework.boot.loader.launch.PropertiesLauncher captured.jsonl incident.trace
+ */
+public final class TraceIngest {
+
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private TraceIngest() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: TraceIngest <captured.jsonl> <output.trace>");
+            System.exit(2);
+        }
+        long records = ingest(Path.of(args[0]), Path.of(args[1]));
+        System.out.printf("Wrote %d requests to %s%n", records, args[1]);
+    }
+
+    public static long ingest(Path jsonLines, Path trace) throws IOException {
+        TraceWriter writer = null;
+        long firstCreatedAt = 0;
+        try (BufferedReader reader = Files.newBufferedReader(jsonLines, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (!line.startsWith("{")) {
+                    continue;
+                }
+                BidRequest request = JSON.readValue(line, BidRequest.class);
+                if (writer == null) {
+                    firstCreatedAt = request.createdAtMillis();
+                    writer = TraceWriter.create(trace, firstCreatedAt > 0 ? firstCreatedAt : System.currentTimeMillis());
+                }
+                long offsetMillis = request.createdAtMillis() > 0 ? request.createdAtMillis() - firstCreatedAt : 0;
+                writer.append(offsetMillis * 1_000_000, BidRequestCodec.encode(request));
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+        if (writer == null) {
+            throw new IOException("No JSON bid requests found in " + jsonLines);
+        }
+        return writer.records();
+    }
+}
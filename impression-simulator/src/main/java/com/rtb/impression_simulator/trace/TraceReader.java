@@ -0,0 +1,133 @@
+package com.rtb.impression_simulator.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads a trace file front to back through memory-mapped windows.
+ *
+ * The file is never read onto the heap: a window of the file (256 MB by default) is
+ * mapped, records are read out of it, and when the next record would run past its end
+ * the window is remapped at that record. The OS pages the file in and out behind us, so
+ * a multi-GB trace replays in constant heap. Only the current record's payload is
+ * copied out, for decoding.
+ *
+ * Usage: while (reader.next()) { reader.offsetNanos(); reader.payload(); }
+ */
+public final class TraceReader implements Closeable {
+
+    private static final long DEFAULT_WINDOW = 256L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private final long startEpochMillis;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    private long offsetNanos;
+    private byte[] payload;
+
+    public static TraceReader open(Path path) throws IOException {
+        return new TraceReader(path, DEFAULT_WINDOW);
+    }
+
+    // Small windows are for tests, to cross window boundaries without a huge file.
+    TraceReader(Path path, long windowSize) throws IOException {
+        if (windowSize < TraceFormat.HEADER_SIZE + TraceFormat.RECORD_HEADER_SIZE + TraceFormat.MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Window too small for the largest record");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+        try {
+            if (size < TraceFormat.HEADER_SIZE) {
+                throw new IOException(path + " is not a trace file (too short)");
+            }
+            map(0);
+            byte[] magic = new byte[TraceFormat.MAGIC.length];
+            window.get(magic);
+            int version = window.getInt();
+            if (!Arrays.equals(magic, TraceFormat.MAGIC) || version != TraceFormat.VERSION) {
+                throw new IOException(path + " is not a version " + TraceFormat.VERSION + " trace file");
+            }
+            this.startEpochMillis = window.getLong();
+            this.position = TraceFormat.HEADER_SIZE;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wall clock at the first record, as recorded.
+     */
+    public long startEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * Advances to the next record. False at the end of the trace, including a partial
+     * record left by a recording that was cut short.
+     */
+    public boolean next() throws IOException {
+        if (size - position < TraceFormat.RECORD_HEADER_SIZE) {
+            return false;
+        }
+        ensureMapped(TraceFormat.RECORD_HEADER_SIZE);
+        int length = window.getInt((int) (position - windowStart));
+        if (length < 0 || length > TraceFormat.MAX_PAYLOAD) {
+            throw new IOException("Corrupt trace: record length " + length + " at byte " + position);
+        }
+        long recordSize = TraceFormat.RECORD_HEADER_SIZE + length;
+        if (size - position < recordSize) {
+            return false;
+        }
+        ensureMapped(recordSize);
+        int at = (int) (position - windowStart);
+        offsetNanos = window.getLong(at + 4);
+        payload = new byte[length];
+        window.get(at + TraceFormat.RECORD_HEADER_SIZE, payload);
+        position += recordSize;
+        return true;
+    }
+
+    /**
+     * Time of the current record since the first one.
+     */
+    public long offsetNanos() {
+        return offsetNanos;
+    }
+
+    /**
+     * The current record in the binary wire format. A fresh array per record.
+     */
+    public byte[] payload() {
+        return payload;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The mapping itself is released when the buffer is collected.
+        window = null;
+        channel.close();
+    }
+
+    private void ensureMapped(long bytes) throws IOException {
+        if (position + bytes > windowStart + window.capacity()) {
+            map(position);
+        }
+    }
+
+    private void map(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, size - start));
+    }
+}
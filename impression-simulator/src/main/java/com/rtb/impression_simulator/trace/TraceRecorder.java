@@ -0,0 +1,75 @@
+package com.rtb.impression_simulator.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.rtb.wire.BidRequestCodec;
+import com.rtb.wire.dto.BidRequest;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Records every request the simulator sends into a trace file, when rtb.trace.record-path
+ * is set. Off by default, and then record() is a single field check.
+ *
+ * Offsets are taken under the same lock as the append, so they follow file order. If the
+ * file cannot be written, recording stops (with one error logged) and sending goes on.
+ */
+@Component
+public class TraceRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceRecorder.class);
+
+    private final Path path;
+    private TraceWriter writer;
+    private long startNanos;
+    private volatile boolean enabled;
+
+    public TraceRecorder(@Value("${rtb.trace.record-path:}") String recordPath) throws IOException {
+        this.path = recordPath.isBlank() ? null : Path.of(recordPath);
+        if (path != null) {
+            this.writer = TraceWriter.create(path, System.currentTimeMillis());
+            this.startNanos = System.nanoTime();
+            this.enabled = true;
+            log.info("Recording sent bid requests to {}", path.toAbsolutePath());
+        }
+    }
+
+    public void record(BidRequest request) {
+        if (!enabled) {
+            return;
+        }
+        byte[] payload = BidRequestCodec.encode(request);
+        synchronized (this) {
+            if (!enabled) {
+                return;
+            }
+            try {
+                writer.append(System.nanoTime() - startNanos, payload);
+            } catch (IOException e) {
+                log.error("Trace recording to {} failed, recording stopped", path, e);
+                enabled = false;
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        enabled = false;
+        try {
+            writer.close();
+            log.info("Trace {} closed with {} requests", path, writer.records());
+        } catch (IOException e) {
+            log.error("Could not close trace {}", path, e);
+        }
+        writer = null;
+    }
+}
@@ -0,0 +1,127 @@
+package com.rtb.impression_simulator.trace;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import com.rtb.impression_simulator.service.KafkaProducerService;
+import com.rtb.wire.BidRequestCodec;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Sends the requests of a trace file again, with their original gaps.
+ *
+ * Record i is sent at replay start + offsetNanos / rtb.trace.speed: 1 is real time, 10
+ * is ten times faster, 0 sends back to back as fast as the producer accepts. Requests
+ * keep their impression ids (so runs can be matched up) but are restamped with the
+ * current createdAtMillis, so the bidder's end-to-end latency and deadline (tmaxMillis,
+ * kept as recorded) stay meaningful.
+ *
+ * A single thread reads and sends in order: the producer's send is asynchronous, so one
+ * thread keeps up with any rate the bidder can take, and order within the trace is kept.
+ * If rtb.trace.responses-path is set, the bidder's responses are captured there for
+ * {@link ResponseDiff}.
+ */
+@Component
+public class TraceReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(TraceReplayer.class);
+    private static final long PROGRESS_EVERY = 100_000;
+
+    private final KafkaProducerService kafkaProducerService;
+    private final ResponseRecorder responseRecorder;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final String tracePath;
+    private final double speed;
+    private final String responsesPath;
+    private final Duration responsesDrain;
+
+    public TraceReplayer(KafkaProducerService kafkaProducerService, ResponseRecorder responseRecorder,
+                         KafkaListenerEndpointRegistry listenerRegistry,
+                         @Value("${rtb.trace.path:}") String tracePath,
+                         @Value("${rtb.trace.speed:1.0}") double speed,
+                         @Value("${rtb.trace.responses-path:}") String responsesPath,
+                         @Value("${rtb.trace.responses.drain:PT5S}") Duration responsesDrain) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("rtb.trace.speed must be 0 (as fast as possible) or positive");
+        }
+        this.kafkaProducerService = kafkaProducerService;
+        this.responseRecorder = responseRecorder;
+        this.listenerRegistry = listenerRegistry;
+        this.tracePath = tracePath;
+        this.speed = speed;
+        this.responsesPath = responsesPath;
+        this.responsesDrain = responsesDrain;
+    }
+
+    public void run() throws IOException, InterruptedException {
+        if (tracePath.isBlank()) {
+            throw new IllegalStateException("rtb.load.mode=replay needs rtb.trace.path");
+        }
+        MessageListenerContainer responses = startResponseCapture();
+
+        long sent = 0;
+        long maxLateNanos = 0;
+        long start = System.nanoTime();
+        try (TraceReader reader = TraceReader.open(Path.of(tracePath))) {
+            log.info("Replaying {} (recorded {}) at {}", tracePath,
+                    Instant.ofEpochMilli(reader.startEpochMillis()), speed == 0 ? "max speed" : speed + "x");
+            while (reader.next()) {
+                if (speed > 0) {
+                    long due = start + (long) (reader.offsetNanos() / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    maxLateNanos = Math.max(maxLateNanos, System.nanoTime() - due);
+                }
+                BidRequest recorded = BidRequestCodec.decode(reader.payload());
+                kafkaProducerService.sendBidRequest(restamped(recorded));
+                if (++sent % PROGRESS_EVERY == 0) {
+                    log.info("Replayed {} requests", sent);
+                }
+            }
+        }
+        kafkaProducerService.flush();
+        long elapsed = System.nanoTime() - start;
+        log.info("Replay finished: {} requests in {} ms ({}/s), at most {} ms behind schedule",
+                sent, elapsed / 1_000_000, Math.round(sent * 1e9 / Math.max(1, elapsed)), maxLateNanos / 1_000_000);
+
+        if (responses != null) {
+            Thread.sleep(responsesDrain.toMillis());
+            responses.stop();
+            log.info("Captured {} responses to {}", responseRecorder.close(), responsesPath);
+        }
+    }
+
+    private MessageListenerContainer startResponseCapture() throws IOException, InterruptedException {
+        if (responsesPath.isBlank()) {
+            return null;
+        }
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(ResponseRecorder.LISTENER_ID);
+        responseRecorder.open(Path.of(responsesPath));
+        container.start();
+        // The group reads from the latest offset, so wait for partitions before sending anything.
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while ((container.getAssignedPartitions() == null || container.getAssignedPartitions().isEmpty())
+                && System.nanoTime() - deadline < 0) {
+            Thread.sleep(100);
+        }
+        return container;
+    }
+
+    private static BidRequest restamped(BidRequest request) {
+        return new BidRequest(request.impressionId(), request.siteId(), request.adTypeId(), request.geoId(),
+                request.deviceCategoryId(), request.advertiserId(), request.osId(), System.currentTimeMillis(),
+                request.tmaxMillis());
+    }
+}
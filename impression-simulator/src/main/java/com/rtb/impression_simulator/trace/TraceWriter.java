@@ -0,0 +1,81 @@
+package com.rtb.impression_simulator.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends records to a new trace file (see {@link TraceFormat}).
+ *
+ * Records are gathered in a 1 MB buffer and written with one channel write per buffer,
+ * so recording at full simulator speed costs a copy per request, not a syscall. Refuses
+ * to overwrite an existing file. Not thread-safe; TraceRecorder serialises access.
+ */
+public final class TraceWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private long lastOffsetNanos;
+    private long records;
+
+    private TraceWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static TraceWriter create(Path path, long startEpochMillis) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        TraceWriter writer = new TraceWriter(channel);
+        writer.buffer.put(TraceFormat.MAGIC).putInt(TraceFormat.VERSION).putLong(startEpochMillis);
+        return writer;
+    }
+
+    /**
+     * Appends one request. An offset earlier than the previous record's is raised to it,
+     * so offsets stay monotonic even if the caller's clock readings are not.
+     */
+    public void append(long offsetNanos, byte[] payload) throws IOException {
+        if (payload.length > TraceFormat.MAX_PAYLOAD) {
+            throw new IllegalArgumentException("Trace record too large: " + payload.length + " bytes");
+        }
+        if (buffer.remaining() < TraceFormat.RECORD_HEADER_SIZE + payload.length) {
+            drain();
+        }
+        lastOffsetNanos = Math.max(lastOffsetNanos, offsetNanos);
+        buffer.putInt(payload.length).putLong(lastOffsetNanos).put(payload);
+        records++;
+    }
+
+    public long records() {
+        return records;
+    }
+
+    /**
+     * Writes out everything buffered so far.
+     */
+    public void flush() throws IOException {
+        drain();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,64 @@
+package com.rtb.impression_simulator.dataset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.StringReader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.rtb.wire.dto.BidRequest;
+
+class RequestDatasetTests {
+
+	private static final String CSV = """
+			date,site_id,ad_type_id,geo_id,device_category_id,advertiser_id,order_id,line_item_type_id,os_id
+			2019-06-01, 351 ,10,187,1,84,3473,19,56
+			2019-06-01,351,10,187,2,84,3473,19,58
+			2019-06-01,too,short
+			2019-06-02,348,17,147,1,88,3478,20,60
+			""";
+
+	@Test
+	void keepsTheSixRequestColumnsAndSkipsShortRows() throws Exception {
+		RequestDataset dataset = RequestDataset.load(new StringReader(CSV));
+
+		assertEquals(3, dataset.size());
+		BidRequest first = dataset.request(0, "imp-1", 42L, 100);
+		assertEquals(new BidRequest("imp-1", "351", "10", "187", "1", "84", "56", 42L, 100), first);
+		assertEquals("88", dataset.request(2, "imp-3", 0L, 0).advertiserId());
+	}
+
+	@Test
+	void rowsShareOneStringPerDistinctValue() throws Exception {
+		RequestDataset dataset = RequestDataset.load(new StringReader(CSV));
+
+		// " 351 " is trimmed on load, so both rows point at the same dictionary entry.
+		assertSame(dataset.request(0, "a", 0L, 0).siteId(), dataset.request(1, "b", 0L, 0).siteId());
+		// site 2, ad type 2, geo 2, device 2, advertiser 2, os 3
+		assertEquals(13, dataset.dictionarySize());
+	}
+
+	@Test
+	void impressionIdsAreUniqueAcrossThreads() throws Exception {
+		ImpressionIdGenerator ids = new ImpressionIdGenerator(0xabcL);
+		Set<String> seen = ConcurrentHashMap.newKeySet();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 5000; i++) {
+					seen.add(ids.next());
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(20_000, seen.size());
+		assertEquals("000000000abc-0", new ImpressionIdGenerator(0xabcL).next());
+	}
+}
@@ -0,0 +1,36 @@
+package com.rtb.impression_simulator.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.rtb.impression_simulator.load.RateProfile.Shape;
+import com.rtb.impression_simulator.service.KafkaProducerService;
+import com.rtb.impression_simulator.service.SimulationService;
+
+class OpenLoopGeneratorTests {
+
+	@Test
+	void workersKeepTheScheduleWhenSendsThrow() throws Exception {
+		AtomicInteger attempts = new AtomicInteger();
+		KafkaProducerService producer = mock(KafkaProducerService.class);
+		when(producer.sendBidRequest(any())).thenAnswer(invocation -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException("producer closed");
+		});
+		OpenLoopGenerator generator = new OpenLoopGenerator(mock(SimulationService.class), producer,
+				Shape.CONSTANT, 1000, 100, 500, Duration.ofSeconds(30), Duration.ofMinutes(1),
+				Duration.ofSeconds(5), Duration.ofSeconds(30), 2, Duration.ofMillis(500), Duration.ofSeconds(10), "", 1);
+
+		generator.run();
+
+		// About 500 slots at 1000/s; a worker that stopped at its first error would leave 2.
+		assertTrue(attempts.get() > 100, "attempted sends: " + attempts.get());
+	}
+}
@@ -0,0 +1,55 @@
+package com.rtb.impression_simulator.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.rtb.impression_simulator.load.RateProfile.Shape;
+
+class RateProfileTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	private static RateProfile profile(Shape shape) {
+		return RateProfile.of(shape, 1000, 100, 200, Duration.ofSeconds(10), Duration.ofSeconds(10),
+				Duration.ofSeconds(2), Duration.ofSeconds(10));
+	}
+
+	@Test
+	void rampIsLinearThenHolds() {
+		RateProfile ramp = profile(Shape.RAMP);
+
+		assertEquals(100, ramp.ratePerSecond(0), 1e-9);
+		assertEquals(550, ramp.ratePerSecond(5 * SECOND), 1e-9);
+		assertEquals(1000, ramp.ratePerSecond(60 * SECOND), 1e-9);
+	}
+
+	@Test
+	void stepClimbsUntilTheTargetRate() {
+		RateProfile step = profile(Shape.STEP);
+
+		assertEquals(100, step.ratePerSecond(9 * SECOND), 1e-9);
+		assertEquals(300, step.ratePerSecond(10 * SECOND), 1e-9);
+		assertEquals(1000, step.ratePerSecond(100 * SECOND), 1e-9);
+	}
+
+	@Test
+	void burstRepeatsEveryPeriod() {
+		RateProfile burst = profile(Shape.BURST);
+
+		assertEquals(1000, burst.ratePerSecond(SECOND), 1e-9);
+		assertEquals(100, burst.ratePerSecond(5 * SECOND), 1e-9);
+		assertEquals(1000, burst.ratePerSecond(11 * SECOND), 1e-9);
+		// 2 s of 1000/s and 8 s of 100/s per period
+		assertEquals(280, burst.meanRatePerSecond(10 * SECOND), 1e-9);
+	}
+
+	@Test
+	void rejectsNonPositiveRates() {
+		assertThrows(IllegalArgumentException.class, () -> RateProfile.of(Shape.CONSTANT, 0, 100, 200,
+				Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1)));
+	}
+}
@@ -0,0 +1,43 @@
+package com.rtb.impression_simulator.publish;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.kafka.clients.producer.internals.BuiltInPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.junit.jupiter.api.Test;
+
+import com.rtb.wire.dto.BidRequest;
+
+class AdvertiserPartitionerTests {
+
+	private final AdvertiserPartitioner partitioner = new AdvertiserPartitioner();
+
+	@Test
+	void requestsLandWhereAnAdvertiserIdKeyWould() {
+		Cluster cluster = cluster("bid-requests", 6);
+		for (String advertiserId : List.of("79", "84", "1000")) {
+			BidRequest request = new BidRequest("imp-" + advertiserId, "351", "10", "187", "1", advertiserId, "56", 0L);
+			byte[] impressionKey = request.impressionId().getBytes(StandardCharsets.UTF_8);
+
+			int partition = partitioner.partition("bid-requests", request.impressionId(), impressionKey, request, null, cluster);
+
+			assertEquals(BuiltInPartitioner.partitionForKey(advertiserId.getBytes(StandardCharsets.UTF_8), 6), partition);
+		}
+	}
+
+	private static Cluster cluster(String topic, int partitions) {
+		Node node = new Node(0, "localhost", 9092);
+		List<PartitionInfo> infos = new ArrayList<>();
+		for (int p = 0; p < partitions; p++) {
+			infos.add(new PartitionInfo(topic, p, node, new Node[] {node}, new Node[] {node}));
+		}
+		return new Cluster("test", List.of(node), infos, Set.of(), Set.of());
+	}
+}
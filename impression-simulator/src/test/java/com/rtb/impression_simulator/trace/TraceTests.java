@@ -0,0 +1,125 @@
+package com.rtb.impression_simulator.trace;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.rtb.wire.BidRequestCodec;
+import com.rtb.wire.dto.BidRequest;
+
+class TraceTests {
+
+	@TempDir
+	Path dir;
+
+	private static BidRequest request(int i) {
+		return new BidRequest("imp-" + i, "351", "10", "187", "1", String.valueOf(80 + i % 7), "56", 1_000L + i);
+	}
+
+	@Test
+	void replaysEveryRecordInOrderAcrossMappedWindows() throws IOException {
+		Path trace = dir.resolve("run.trace");
+		int count = 20_000; // ~1 MB, so a 128 KB window is remapped several times
+		try (TraceWriter writer = TraceWriter.create(trace, 42L)) {
+			for (int i = 0; i < count; i++) {
+				writer.append(i * 1_000L, BidRequestCodec.encode(request(i)));
+			}
+		}
+
+		try (TraceReader reader = new TraceReader(trace, 128 << 10)) {
+			assertEquals(42L, reader.startEpochMillis());
+			for (int i = 0; i < count; i++) {
+				assertTrue(reader.next());
+				assertEquals(i * 1_000L, reader.offsetNanos());
+				assertEquals(request(i), BidRequestCodec.decode(reader.payload()));
+			}
+			assertFalse(reader.next());
+		}
+	}
+
+	@Test
+	void offsetsNeverGoBackwards() throws IOException {
+		Path trace = dir.resolve("skew.trace");
+		try (TraceWriter writer = TraceWriter.create(trace, 0L)) {
+			writer.append(500L, BidRequestCodec.encode(request(1)));
+			writer.append(300L, BidRequestCodec.encode(request(2)));
+		}
+
+		try (TraceReader reader = TraceReader.open(trace)) {
+			reader.next();
+			reader.next();
+			assertEquals(500L, reader.offsetNanos());
+		}
+	}
+
+	@Test
+	void aPartialLastRecordEndsTheTrace() throws IOException {
+		Path trace = dir.resolve("cut.trace");
+		try (TraceWriter writer = TraceWriter.create(trace, 0L)) {
+			writer.append(0L, BidRequestCodec.encode(request(1)));
+			writer.append(1L, BidRequestCodec.encode(request(2)));
+		}
+		try (FileChannel channel = FileChannel.open(trace, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+		}
+
+		try (TraceReader reader = TraceReader.open(trace)) {
+			assertTrue(reader.next());
+			assertFalse(reader.next());
+		}
+	}
+
+	@Test
+	void neverOverwritesATrace() throws IOException {
+		Path trace = dir.resolve("existing.trace");
+		Files.writeString(trace, "keep me");
+
+		assertThrows(IOException.class, () -> TraceWriter.create(trace, 0L));
+		assertThrows(IOException.class, () -> TraceReader.open(trace));
+	}
+
+	@Test
+	void ingestsJsonLinesUsingCreatedAtGaps() throws IOException {
+		Path json = dir.resolve("captured.jsonl");
+		Files.write(json, List.of(
+				"{\"impressionId\":\"a\",\"siteId\":\"1\",\"advertiserId\":\"84\",\"createdAtMillis\":1000}",
+				"",
+				"{\"impressionId\":\"b\",\"siteId\":\"1\",\"advertiserId\":\"84\",\"createdAtMillis\":1250}"));
+		Path trace = dir.resolve("ingested.trace");
+
+		assertEquals(2, TraceIngest.ingest(json, trace));
+		try (TraceReader reader = TraceReader.open(trace)) {
+			assertEquals(1000L, reader.startEpochMillis());
+			reader.next();
+			reader.next();
+			assertEquals(250_000_000L, reader.offsetNanos());
+			assertEquals("b", BidRequestCodec.decode(reader.payload()).impressionId());
+		}
+	}
+
+	@Test
+	void diffMatchesResponsesByImpression() throws IOException {
+		Path before = dir.resolve("before.tsv");
+		Path after = dir.resolve("after.tsv");
+		Files.write(before, List.of("i1\tc1\t84\t750000", "i2\tc1\t84\t750000", "i2\tc2\t84\t500000", "i3\tc1\t84\t1"));
+		Files.write(after, List.of("i2\tc2\t84\t500000", "i2\tc1\t84\t750000", "i1\tc3\t84\t750000", "i4\tc1\t84\t1"));
+
+		ResponseDiff.Result result = ResponseDiff.compare(before, after);
+
+		assertEquals(1, result.same());      // i2, in a different order
+		assertEquals(1, result.changed());   // i1 went to another campaign
+		assertEquals(1, result.onlyLeft());  // i3
+		assertEquals(1, result.onlyRight()); // i4
+	}
+}
@@ -0,0 +1,99 @@
+package com.rtb.perf_harness;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rtb.bidder_service.BidderServiceApplication;
+import com.rtb.impression_simulator.dataset.RequestDataset;
+
+/**
+ * Boots the whole bidder in this JVM (embedded Kafka, H2, no Redis; see
+ * application-perf.properties), drives it at each rate in baseline.json and fails if
+ * any phase falls short of its minimum QPS or exceeds its p99 / p99.9 end-to-end
+ * latency. The measured numbers are written to target/perf-report.json either way.
+ *
+ * Absolute numbers depend on the machine; compare reports from the same host, and
+ * update baseline.json deliberately when the bidder gets faster.
+ */
+@SpringBootTest(classes = BidderServiceApplication.class, webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("perf")
+@EmbeddedKafka(partitions = 3, topics = {"bid-requests", "bid-responses"})
+class BidderPerformanceTests {
+
+	private static final Logger log = LoggerFactory.getLogger(BidderPerformanceTests.class);
+
+	@Autowired
+	private EmbeddedKafkaBroker broker;
+
+	@Test
+	void sustainsTheBaselineRatesWithinItsLatencyBudget() throws Exception {
+		PerfBaseline baseline = PerfBaseline.load(Path.of(System.getProperty("perf.baseline", "baseline.json")));
+		Path reportPath = Path.of(System.getProperty("perf.report", "target/perf-report.json"));
+
+		List<PhaseResult> results = new ArrayList<>();
+		try (LoadDriver driver = new LoadDriver(broker.getBrokersAsString(), "bid-requests", "bid-responses",
+				RequestDataset.load(new StringReader(matchingRows())))) {
+			PerfBaseline.Phase first = baseline.phases().get(0);
+			driver.run(new PerfBaseline.Phase("warmup", first.ratePerSecond(), baseline.warmupSeconds(), 0,
+					Double.MAX_VALUE, Double.MAX_VALUE), baseline.drainSeconds());
+
+			for (PerfBaseline.Phase phase : baseline.phases()) {
+				PhaseResult result = driver.run(phase, baseline.drainSeconds());
+				log.info("{}: {} qps (target {}), p50/p99/p99.9/max = {}/{}/{}/{} ms {}", result.name(),
+						Math.round(result.achievedQps()), Math.round(result.targetQps()), result.p50Millis(),
+						result.p99Millis(), result.p999Millis(), result.maxMillis(),
+						result.passed() ? "OK" : result.failures());
+				results.add(result);
+			}
+		}
+
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("baseline", baseline);
+		report.put("phases", results);
+		report.put("passed", results.stream().allMatch(PhaseResult::passed));
+		Files.createDirectories(reportPath.toAbsolutePath().getParent());
+		new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportPath.toFile(), report);
+
+		for (PhaseResult result : results) {
+			assertTrue(result.passed(), result.name() + ": " + result.failures() + " (see " + reportPath + ")");
+		}
+	}
+
+	/**
+	 * A data.csv-shaped dataset (the real one is not in the repository) made only of the
+	 * advertiser / geo / os combinations the bidder's sample campaigns target, so every
+	 * request should be answered with a bid.
+	 */
+	private static String matchingRows() {
+		String[][] combos = {
+			{"79", "56"}, {"79", "55"}, {"79", "58"}, {"79", "60"},
+			{"88", "56"}, {"90", "56"}, {"97", "56"}, {"139", "55"}
+		};
+		StringBuilder csv = new StringBuilder("date,site_id,ad_type_id,geo_id,device_category_id,advertiser_id,order_id,line_item_type_id,os_id\n");
+		for (int site = 340; site < 360; site++) {
+			for (String[] combo : combos) {
+				csv.append("2019-06-01,").append(site).append(",10,187,").append(site % 3 + 1).append(',')
+						.append(combo[0]).append(",3473,19,").append(combo[1]).append('\n');
+			}
+		}
+		return csv.toString();
+	}
+}
@@ -0,0 +1,147 @@
+package com.rtb.perf_harness;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import com.rtb.impression_simulator.codec.BidRequestBinarySerializer;
+import com.rtb.impression_simulator.dataset.ImpressionIdGenerator;
+import com.rtb.impression_simulator.dataset.RequestDataset;
+import com.rtb.impression_simulator.load.RateProfile;
+import com.rtb.wire.BidResponseDeserializer;
+import com.rtb.wire.dto.BidRequest;
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * Drives the bidder the way the simulator does, and times every request to its response.
+ *
+ * Requests come from the simulator's own RequestDataset and ImpressionIdGenerator and go
+ * out open loop: request i is due at start + i / rate, whether or not earlier ones were
+ * answered. Latency is measured from that due time to the matching bid-response being
+ * consumed (matched by impression id), so falling behind schedule shows up as latency
+ * instead of as a quietly lower rate.
+ */
+final class LoadDriver implements AutoCloseable {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final RequestDataset dataset;
+    private final ImpressionIdGenerator impressionIds = new ImpressionIdGenerator();
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private final KafkaProducer<String, BidRequest> producer;
+    private final KafkaConsumer<String, BidResponse> consumer;
+    private final String requestTopic;
+    private final Thread responseReader;
+    private volatile boolean running = true;
+
+    // Impression id -> due time (nanoTime) of requests not answered yet.
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final Recorder latencies = new Recorder(HIGHEST_MICROS, 3);
+    private final LongAdder responses = new LongAdder();
+    private final LongAdder sendErrors = new LongAdder();
+
+    LoadDriver(String brokers, String requestTopic, String responseTopic, RequestDataset dataset) {
+        this.dataset = dataset;
+        this.requestTopic = requestTopic;
+        this.producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers,
+                ProducerConfig.LINGER_MS_CONFIG, 0),
+                new StringSerializer(), new BidRequestBinarySerializer());
+        this.consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, brokers,
+                ConsumerConfig.GROUP_ID_CONFIG, "perf-harness",
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"),
+                new StringDeserializer(), new BidResponseDeserializer());
+        consumer.subscribe(List.of(responseTopic));
+        this.responseReader = Thread.ofPlatform().name("perf-responses").daemon().start(this::readResponses);
+    }
+
+    /**
+     * Sends at the phase's rate for its duration, waits drainSeconds for the last
+     * responses and returns what it measured. Requests still unanswered then are lost.
+     */
+    PhaseResult run(PerfBaseline.Phase phase, int drainSeconds) throws InterruptedException {
+        RateProfile profile = RateProfile.of(RateProfile.Shape.CONSTANT, phase.ratePerSecond(), phase.ratePerSecond(),
+                0, null, null, null, null);
+        latencies.reset();
+        responses.reset();
+        sendErrors.reset();
+        pending.clear();
+
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(phase.durationSeconds());
+        long sent = 0;
+        long due = start;
+        while (due - end < 0) {
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            BidRequest request = dataset.request(random.nextInt(dataset.size()), impressionIds.next(),
+                    System.currentTimeMillis(), 0); // no tmax: nothing is shed while we measure
+            pending.put(request.impressionId(), due);
+            producer.send(new ProducerRecord<>(requestTopic, request.impressionId(), request), (metadata, error) -> {
+                if (error != null) {
+                    sendErrors.increment();
+                }
+            });
+            sent++;
+            due += (long) (1e9 / profile.ratePerSecond(due - start));
+        }
+        producer.flush();
+
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(drainSeconds);
+        while (!pending.isEmpty() && System.nanoTime() - drainUntil < 0) {
+            Thread.sleep(10);
+        }
+        pending.clear();
+
+        Histogram histogram = latencies.getIntervalHistogram();
+        long answered = responses.sum();
+        return PhaseResult.of(phase, sent, answered, sendErrors.sum(), (double) answered / phase.durationSeconds(),
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+    }
+
+    private void readResponses() {
+        while (running) {
+            for (ConsumerRecord<String, BidResponse> record : consumer.poll(Duration.ofMillis(5))) {
+                long now = System.nanoTime();
+                BidResponse response = record.value();
+                Long due = response == null ? null : pending.remove(response.impressionId());
+                if (due != null) {
+                    latencies.recordValue(Math.min(HIGHEST_MICROS, (now - due) / 1_000));
+                    responses.increment();
+                }
+            }
+        }
+        consumer.close();
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        responseReader.join();
+        producer.close();
+    }
+}
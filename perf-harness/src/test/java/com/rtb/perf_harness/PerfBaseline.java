@@ -0,0 +1,23 @@
+package com.rtb.perf_harness;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The stored baseline (baseline.json): which rates to drive and what each must achieve.
+ *
+ * Raise the thresholds when the bidder gets faster, so the next regression fails the
+ * build instead of eating the gain.
+ */
+record PerfBaseline(int warmupSeconds, int drainSeconds, List<Phase> phases) {
+
+    record Phase(String name, double ratePerSecond, int durationSeconds, double minQps,
+                 double maxP99Millis, double maxP999Millis) {}
+
+    static PerfBaseline load(Path path) throws IOException {
+        return new ObjectMapper().readValue(path.toFile(), PerfBaseline.class);
+    }
+}
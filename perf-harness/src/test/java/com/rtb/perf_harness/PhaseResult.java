@@ -0,0 +1,31 @@
+package com.rtb.perf_harness;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What one phase measured, and which of its baseline thresholds it broke.
+ */
+record PhaseResult(String name, double targetQps, long sent, long responses, long sendErrors, double achievedQps,
+                   double p50Millis, double p99Millis, double p999Millis, double maxMillis, List<String> failures) {
+
+    static PhaseResult of(PerfBaseline.Phase phase, long sent, long responses, long sendErrors, double achievedQps,
+                          double p50, double p99, double p999, double max) {
+        List<String> failures = new ArrayList<>();
+        if (achievedQps < phase.minQps()) {
+            failures.add(String.format("achieved %.0f qps < minimum %.0f", achievedQps, phase.minQps()));
+        }
+        if (p99 > phase.maxP99Millis()) {
+            failures.add(String.format("p99 %.2f ms > maximum %.2f ms", p99, phase.maxP99Millis()));
+        }
+        if (p999 > phase.maxP999Millis()) {
+            failures.add(String.format("p99.9 %.2f ms > maximum %.2f ms", p999, phase.maxP999Millis()));
+        }
+        return new PhaseResult(phase.name(), phase.ratePerSecond(), sent, responses, sendErrors, achievedQps,
+                p50, p99, p999, max, failures);
+    }
+
+    boolean passed() {
+        return failures.isEmpty();
+    }
+}
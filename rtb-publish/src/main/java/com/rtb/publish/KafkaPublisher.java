@@ -0,0 +1,143 @@
+package com.rtb.publish;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.kafka.common.KafkaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Asynchronous sends to one topic, with a bound on how many are unacknowledged and a
+ * completion callback on every one.
+ *
+ * - Back-pressure: at most maxInFlight sends are waiting for the broker. Past that,
+ *   send() blocks the calling thread (so its caller slows to the broker's pace) for up to
+ *   maxBlockMillis, then gives up and returns a failed future.
+ * - Completion: when the broker acks or the send fails, the permit is released and the
+ *   outcome is recorded. The callbacks run on the producer's I/O thread, so they only
+ *   touch meters.
+ *
+ * Metrics, tagged with the topic: rtb.publisher.send.latency (send to ack),
+ * rtb.publisher.sends{result=ok|failed|rejected} and rtb.publisher.in-flight.
+ * Failures are logged at most once every 10 s, with the count since the last line.
+ */
+public final class KafkaPublisher<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaPublisher.class);
+    private static final long FAILURE_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final KafkaTemplate<K, V> template;
+    private final String topic;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long maxBlockMillis;
+
+    private final Timer sendLatency;
+    private final Counter ok;
+    private final Counter failed;
+    private final Counter rejected;
+
+    private final AtomicLong unloggedFailures = new AtomicLong();
+    private final AtomicLong nextFailureLog = new AtomicLong(System.nanoTime());
+
+    public KafkaPublisher(KafkaTemplate<K, V> template, String topic, int maxInFlight, long maxBlockMillis,
+                          MeterRegistry meterRegistry) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("rtb.publisher.max-in-flight must be at least 1");
+        }
+        this.template = template;
+        this.topic = topic;
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.maxBlockMillis = maxBlockMillis;
+
+        this.sendLatency = Timer.builder("rtb.publisher.send.latency")
+            .tag("topic", topic)
+            .description("From handing a record to the producer to the broker's ack")
+            .publishPercentileHistogram(true)
+            .register(meterRegistry);
+        this.ok = sends(meterRegistry, "ok");
+        this.failed = sends(meterRegistry, "failed");
+        this.rejected = sends(meterRegistry, "rejected");
+        Gauge.builder("rtb.publisher.in-flight", this, KafkaPublisher::inFlight)
+            .tag("topic", topic)
+            .description("Sends handed to the producer and not acknowledged yet")
+            .register(meterRegistry);
+    }
+
+    public CompletableFuture<SendResult<K, V>> send(K key, V value) {
+        try {
+            if (!permits.tryAcquire(maxBlockMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new KafkaException(
+                        maxInFlight + " sends to " + topic + " still unacknowledged after " + maxBlockMillis + " ms"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<K, V>> future;
+        try {
+            future = template.send(topic, key, value);
+        } catch (RuntimeException e) {
+            // Serialization errors and a full buffer past max.block.ms throw instead of failing the future.
+            permits.release();
+            onFailure(e);
+            return CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((result, error) -> {
+            permits.release();
+            if (error == null) {
+                sendLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                ok.increment();
+            } else {
+                onFailure(error);
+            }
+        });
+        return future;
+    }
+
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    public long failures() {
+        return (long) (failed.count() + rejected.count());
+    }
+
+    public void flush() {
+        template.flush();
+    }
+
+    private void onFailure(Throwable error) {
+        failed.increment();
+        long unlogged = unloggedFailures.incrementAndGet();
+        long due = nextFailureLog.get();
+        long now = System.nanoTime();
+        if (now - due >= 0 && nextFailureLog.compareAndSet(due, now + FAILURE_LOG_INTERVAL_NANOS)) {
+            unloggedFailures.addAndGet(-unlogged);
+            log.warn("{} send(s) to {} failed since the last report, latest:", unlogged, topic, error);
+        }
+    }
+
+    private Counter sends(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("rtb.publisher.sends")
+            .tag("topic", topic)
+            .tag("result", result)
+            .description("Records sent, by how the send ended")
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,62 @@
+package com.rtb.wire;
+
+import com.rtb.wire.WireFormat.Cursor;
+import com.rtb.wire.dto.BidRequest;
+
+/**
+ * Binary layout of a {@link BidRequest}.
+ *
+ * v1: MAGIC, VERSION, impressionId, siteId, adTypeId, geoId, deviceCategoryId, advertiserId, osId
+ * v2: v1 + createdAtMillis (8-byte big-endian long)
+ * v3: v2 + tmaxMillis (4-byte big-endian int)
+ *
+ * Older payloads still decode, with the missing fields = 0.
+ */
+public final class BidRequestCodec {
+
+    public static final byte VERSION = 3;
+
+    private BidRequestCodec() {}
+
+    public static byte[] encode(BidRequest request) {
+        int size = WireFormat.HEADER_SIZE
+                + WireFormat.idSize(request.impressionId())
+                + WireFormat.idSize(request.siteId())
+                + WireFormat.idSize(request.adTypeId())
+                + WireFormat.idSize(request.geoId())
+                + WireFormat.idSize(request.deviceCategoryId())
+                + WireFormat.idSize(request.advertiserId())
+                + WireFormat.idSize(request.osId())
+                + 8  // createdAtMillis
+                + 4; // tmaxMillis
+
+        byte[] buf = new byte[size];
+        int pos = WireFormat.writeHeader(buf, 0, VERSION);
+        pos = WireFormat.writeId(buf, pos, request.impressionId());
+        pos = WireFormat.writeId(buf, pos, request.siteId());
+        pos = WireFormat.writeId(buf, pos, request.adTypeId());
+        pos = WireFormat.writeId(buf, pos, request.geoId());
+        pos = WireFormat.writeId(buf, pos, request.deviceCategoryId());
+        pos = WireFormat.writeId(buf, pos, request.advertiserId());
+        pos = WireFormat.writeId(buf, pos, request.osId());
+        pos = WireFormat.writeLong(buf, pos, request.createdAtMillis());
+        WireFormat.writeInt(buf, pos, request.tmaxMillis());
+        return buf;
+    }
+
+    public static BidRequest decode(byte[] data) {
+        byte version = WireFormat.readVersion(data, VERSION);
+        Cursor cursor = new Cursor(data, WireFormat.HEADER_SIZE);
+        return new BidRequest(
+            WireFormat.readId(cursor), // impressionId
+            WireFormat.readId(cursor), // siteId
+            WireFormat.readId(cursor), // adTypeId
+            WireFormat.readId(cursor), // geoId
+            WireFormat.readId(cursor), // deviceCategoryId
+            WireFormat.readId(cursor), // advertiserId
+            WireFormat.readId(cursor), // osId
+            version >= 2 ? WireFormat.readLong(cursor) : 0L, // createdAtMillis
+            version >= 3 ? WireFormat.readInt(cursor) : 0    // tmaxMillis
+        );
+    }
+}
@@ -0,0 +1,42 @@
+package com.rtb.wire;
+
+import com.rtb.wire.WireFormat.Cursor;
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * Binary layout of a {@link BidResponse}.
+ *
+ * v1: MAGIC, VERSION, impressionId, campaignId, advertiserId, bidPriceMicros (8 bytes)
+ */
+public final class BidResponseCodec {
+
+    public static final byte VERSION = 1;
+
+    private BidResponseCodec() {}
+
+    public static byte[] encode(BidResponse response) {
+        int size = WireFormat.HEADER_SIZE
+                + WireFormat.idSize(response.impressionId())
+                + WireFormat.idSize(response.campaignId())
+                + WireFormat.idSize(response.advertiserId())
+                + 8;
+
+        byte[] buf = new byte[size];
+        int pos = WireFormat.writeHeader(buf, 0, VERSION);
+        pos = WireFormat.writeId(buf, pos, response.impressionId());
+        pos = WireFormat.writeId(buf, pos, response.campaignId());
+        pos = WireFormat.writeId(buf, pos, response.advertiserId());
+        WireFormat.writeLong(buf, pos, response.bidPriceMicros());
+        return buf;
+    }
+
+    public static BidResponse decode(byte[] data) {
+        WireFormat.readVersion(data, VERSION);
+        Cursor cursor = new Cursor(data, WireFormat.HEADER_SIZE);
+        String impressionId = WireFormat.readId(cursor);
+        String campaignId = WireFormat.readId(cursor);
+        String advertiserId = WireFormat.readId(cursor);
+        long bidPriceMicros = WireFormat.readLong(cursor);
+        return new BidResponse(impressionId, campaignId, advertiserId, bidPriceMicros);
+    }
+}
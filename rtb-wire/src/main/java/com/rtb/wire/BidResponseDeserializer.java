@@ -0,0 +1,43 @@
+package com.rtb.wire;
+
+import java.io.IOException;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.rtb.wire.dto.BidResponse;
+
+/**
+ * Reads bid responses in either wire format.
+ *
+ * The auction-service consumes bid-responses with it, and the simulator uses it to capture
+ * the bidder's answers during a trace replay (see its trace.ResponseRecorder).
+ *
+ * The bidder sends JSON (with a "bidResp" type header, which is ignored here) unless it
+ * is switched to BidResponseBinarySerializer; binary payloads are recognised by their
+ * first byte, so both can be on the topic at once.
+ */
+public class BidResponseDeserializer implements Deserializer<BidResponse> {
+
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Override
+    public BidResponse deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (WireFormat.isBinary(data)) {
+            return BidResponseCodec.decode(data);
+        }
+        try {
+            return JSON.readValue(data, BidResponse.class);
+        } catch (IOException e) {
+            throw new SerializationException("Cannot read JSON bid response from topic " + topic, e);
+        }
+    }
+}
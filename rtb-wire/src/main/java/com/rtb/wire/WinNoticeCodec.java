@@ -0,0 +1,47 @@
+package com.rtb.wire;
+
+import com.rtb.wire.WireFormat.Cursor;
+import com.rtb.wire.dto.WinNotice;
+
+/**
+ * Binary layout of a {@link WinNotice}.
+ *
+ * v1: MAGIC, VERSION, impressionId, campaignId, advertiserId, bidPriceMicros (8 bytes),
+ *     clearingPriceMicros (8 bytes), bidCount (4 bytes)
+ */
+public final class WinNoticeCodec {
+
+    public static final byte VERSION = 1;
+
+    private WinNoticeCodec() {}
+
+    public static byte[] encode(WinNotice notice) {
+        int size = WireFormat.HEADER_SIZE
+                + WireFormat.idSize(notice.impressionId())
+                + WireFormat.idSize(notice.campaignId())
+                + WireFormat.idSize(notice.advertiserId())
+                + 8 + 8 + 4;
+
+        byte[] buf = new byte[size];
+        int pos = WireFormat.writeHeader(buf, 0, VERSION);
+        pos = WireFormat.writeId(buf, pos, notice.impressionId());
+        pos = WireFormat.writeId(buf, pos, notice.campaignId());
+        pos = WireFormat.writeId(buf, pos, notice.advertiserId());
+        pos = WireFormat.writeLong(buf, pos, notice.bidPriceMicros());
+        pos = WireFormat.writeLong(buf, pos, notice.clearingPriceMicros());
+        WireFormat.writeInt(buf, pos, notice.bidCount());
+        return buf;
+    }
+
+    public static WinNotice decode(byte[] data) {
+        WireFormat.readVersion(data, VERSION);
+        Cursor cursor = new Cursor(data, WireFormat.HEADER_SIZE);
+        String impressionId = WireFormat.readId(cursor);
+        String campaignId = WireFormat.readId(cursor);
+        String advertiserId = WireFormat.readId(cursor);
+        long bidPriceMicros = WireFormat.readLong(cursor);
+        long clearingPriceMicros = WireFormat.readLong(cursor);
+        int bidCount = WireFormat.readInt(cursor);
+        return new WinNotice(impressionId, campaignId, advertiserId, bidPriceMicros, clearingPriceMicros, bidCount);
+    }
+}
@@ -0,0 +1,218 @@
+package com.rtb.wire;
+
+import java.nio.charset.StandardCharsets;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * The compact, fixed-layout binary format used on the bid-requests, bid-responses and
+ * win-notices topics. One copy, compiled into every service (see rtb-wire).
+ *
+ * Every message starts with two bytes:
+ *   [0] MAGIC   - never the first byte of a JSON document, so a consumer can tell the
+ *                 two formats apart and read both during a rolling migration.
+ *   [1] VERSION - bumped whenever a field is added; decoders keep reading older versions.
+ *
+ * Fields follow in a fixed order. Ids (siteId, geoId, advertiserId...) are written as:
+ *   TAG_NULL                                 -> null
+ *   TAG_INT    + 4-byte big-endian int       -> canonical decimal ids like "187"
+ *   TAG_STRING + 2-byte length + UTF-8 bytes -> anything else (UUIDs, "abc", "007")
+ * Only canonical decimals use TAG_INT, so decoding always reproduces the original string.
+ * Small int ids decode to pre-built, interned strings, so the common case allocates nothing.
+ */
+public final class WireFormat {
+
+    public static final byte MAGIC = (byte) 0xB7;
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_INT = 1;
+    static final byte TAG_STRING = 2;
+
+    static final int HEADER_SIZE = 2;
+    private static final int MAX_INT_DIGITS = 9;
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    // Every id in the Kaggle dataset is a small decimal, so this covers the hot set.
+    private static final String[] SMALL_INTS = new String[8192];
+
+    static {
+        for (int i = 0; i < SMALL_INTS.length; i++) {
+            SMALL_INTS[i] = String.valueOf(i).intern();
+        }
+    }
+
+    private WireFormat() {}
+
+    /**
+     * True if this payload was written by one of our binary serializers (as opposed to JSON).
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length >= HEADER_SIZE && data[0] == MAGIC;
+    }
+
+    static int writeHeader(byte[] buf, int pos, byte version) {
+        buf[pos] = MAGIC;
+        buf[pos + 1] = version;
+        return pos + HEADER_SIZE;
+    }
+
+    static byte readVersion(byte[] data, byte maxSupported) {
+        if (!isBinary(data)) {
+            throw new SerializationException("Not a binary RTB payload");
+        }
+        byte version = data[1];
+        if (version < 1 || version > maxSupported) {
+            throw new SerializationException("Unsupported wire format version " + version
+                    + " (this build reads up to " + maxSupported + ")");
+        }
+        return version;
+    }
+
+    // === ids ===
+
+    static int idSize(String id) {
+        if (id == null) {
+            return 1;
+        }
+        if (canonicalInt(id) >= 0) {
+            return 1 + 4;
+        }
+        return 1 + 2 + utf8Length(id);
+    }
+
+    static int writeId(byte[] buf, int pos, String id) {
+        if (id == null) {
+            buf[pos] = TAG_NULL;
+            return pos + 1;
+        }
+        int asInt = canonicalInt(id);
+        if (asInt >= 0) {
+            buf[pos] = TAG_INT;
+            return writeInt(buf, pos + 1, asInt);
+        }
+        buf[pos] = TAG_STRING;
+        return writeString(buf, pos + 1, id);
+    }
+
+    static String readId(Cursor cursor) {
+        byte tag = cursor.data[cursor.pos++];
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_INT: {
+                int value = readInt(cursor.data, cursor.pos);
+                cursor.pos += 4;
+                return value < SMALL_INTS.length ? SMALL_INTS[value] : String.valueOf(value);
+            }
+            case TAG_STRING: {
+                int length = ((cursor.data[cursor.pos] & 0xFF) << 8) | (cursor.data[cursor.pos + 1] & 0xFF);
+                String value = new String(cursor.data, cursor.pos + 2, length, StandardCharsets.UTF_8);
+                cursor.pos += 2 + length;
+                return value;
+            }
+            default:
+                throw new SerializationException("Unknown id tag " + tag + " at offset " + (cursor.pos - 1));
+        }
+    }
+
+    // === fixed-width numbers ===
+
+    static int writeInt(byte[] buf, int pos, int value) {
+        buf[pos] = (byte) (value >>> 24);
+        buf[pos + 1] = (byte) (value >>> 16);
+        buf[pos + 2] = (byte) (value >>> 8);
+        buf[pos + 3] = (byte) value;
+        return pos + 4;
+    }
+
+    static int readInt(byte[] data, int pos) {
+        return ((data[pos] & 0xFF) << 24)
+                | ((data[pos + 1] & 0xFF) << 16)
+                | ((data[pos + 2] & 0xFF) << 8)
+                | (data[pos + 3] & 0xFF);
+    }
+
+    static int writeLong(byte[] buf, int pos, long value) {
+        writeInt(buf, pos, (int) (value >>> 32));
+        return writeInt(buf, pos + 4, (int) value);
+    }
+
+    static int readInt(Cursor cursor) {
+        int value = readInt(cursor.data, cursor.pos);
+        cursor.pos += 4;
+        return value;
+    }
+
+    static long readLong(Cursor cursor) {
+        long high = readInt(cursor.data, cursor.pos);
+        long low = readInt(cursor.data, cursor.pos + 4) & 0xFFFFFFFFL;
+        cursor.pos += 8;
+        return (high << 32) | low;
+    }
+
+    // === helpers ===
+
+    /**
+     * The id as a non-negative int if it is a canonical decimal ("0", "187"), else -1.
+     */
+    static int canonicalInt(String id) {
+        int length = id.length();
+        if (length == 0 || length > MAX_INT_DIGITS || (length > 1 && id.charAt(0) == '0')) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int writeString(byte[] buf, int pos, String value) {
+        int length = utf8Length(value);
+        buf[pos] = (byte) (length >>> 8);
+        buf[pos + 1] = (byte) length;
+        pos += 2;
+        if (length == value.length()) {
+            // ASCII fast path: one byte per char, no intermediate array.
+            for (int i = 0; i < length; i++) {
+                buf[pos + i] = (byte) value.charAt(i);
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        }
+        return pos + length;
+    }
+
+    private static int utf8Length(String value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                bytes = value.getBytes(StandardCharsets.UTF_8).length;
+                break;
+            }
+        }
+        if (bytes > MAX_STRING_BYTES) {
+            throw new SerializationException("Id too long for the binary wire format: " + bytes + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Read position over a consumer's byte array. Decoders never copy the payload.
+     */
+    static final class Cursor {
+        final byte[] data;
+        int pos;
+
+        Cursor(byte[] data, int pos) {
+            this.data = data;
+            this.pos = pos;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.rtb.wire.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BidRequest(
+    String impressionId,
+    String siteId,
+    String adTypeId,
+    String geoId,
+    String deviceCategoryId,
+    String advertiserId,
+    String osId,
+    // Wall-clock time the simulator created the request (epoch millis), for end-to-end
+    // latency. 0 when the producer did not stamp it.
+    long createdAtMillis,
+    // How long after createdAtMillis the exchange stops waiting for bids (OpenRTB tmax).
+    // 0 when the producer did not set one; see the bidder's DeadlineGuard.
+    int tmaxMillis
+) {
+    public BidRequest(String impressionId, String siteId, String adTypeId, String geoId,
+                      String deviceCategoryId, String advertiserId, String osId) {
+        this(impressionId, siteId, adTypeId, geoId, deviceCategoryId, advertiserId, osId, 0L, 0);
+    }
+
+    public BidRequest(String impressionId, String siteId, String adTypeId, String geoId,
+                      String deviceCategoryId, String advertiserId, String osId, long createdAtMillis) {
+        this(impressionId, siteId, adTypeId, geoId, deviceCategoryId, advertiserId, osId, createdAtMillis, 0);
+    }
+}
@@ -1,10 +1,8 @@
-package com.rtb.bidder_service.dto;
-
-import java.math.BigDecimal;
+package com.rtb.wire.dto;
 
 public record BidResponse(
     String impressionId,
     String campaignId, // The DB ID of the campaign
     String advertiserId,
-    BigDecimal bidPrice
-) {}
\ No newline at end of file
+    long bidPriceMicros // CPM in micros (0.75 -> 750000), see the bidder's model.Money
+) {}
@@ -0,0 +1,16 @@
+package com.rtb.wire.dto;
+
+/**
+ * The outcome of one closed auction, published on win-notices for the winning bidder.
+ *
+ * bidPriceMicros is what the campaign bid; clearingPriceMicros is what it pays (equal to
+ * the bid in a first-price auction). Both are CPM in micros, like BidResponse.
+ */
+public record WinNotice(
+    String impressionId,
+    String campaignId,
+    String advertiserId,
+    long bidPriceMicros,
+    long clearingPriceMicros,
+    int bidCount // bids the auction saw, including the winner
+) {}